@@ -18,6 +18,7 @@ public class CorsConfig {
         config.addAllowedOriginPattern("*");
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
+        config.addExposedHeader("ETag"); // lets the web client echo it back in If-None-Match
         config.setAllowCredentials(true);
         
         source.registerCorsConfiguration("/**", config);
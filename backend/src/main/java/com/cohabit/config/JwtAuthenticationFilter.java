@@ -32,9 +32,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
+            // Verify once here; controllers read the userId back from the SecurityContext
+            Long userId = StringUtils.hasText(jwt) ? jwtUtil.resolveUserId(jwt) : null;
 
-                Long userId = jwtUtil.getUserIdFromToken(jwt);
+            if (userId != null) {
 
                 // Set authentication with only userId
                 UsernamePasswordAuthenticationToken authentication =
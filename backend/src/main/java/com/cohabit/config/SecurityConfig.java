@@ -1,5 +1,6 @@
 package com.cohabit.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,6 +13,9 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.DispatcherTypeRequestMatcher;
 
 @Configuration
 @EnableWebSecurity
@@ -38,6 +42,11 @@ public class SecurityConfig {
                 .cors(cors -> {})
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                    // The SSE stream finishes on an async dispatch that carries no JWT; the original request
+                    // to that path was authorized. Async dispatches of any other path still need authentication.
+                    .requestMatchers(new AndRequestMatcher(
+                            new DispatcherTypeRequestMatcher(DispatcherType.ASYNC),
+                            new AntPathRequestMatcher("/households/current/events"))).permitAll()
                     .requestMatchers("/auth/**").permitAll()
                     .requestMatchers("/health/**").permitAll()
                     .requestMatchers("/household/find/**").permitAll()   // if invite is public
@@ -5,6 +5,7 @@ import com.cohabit.dto.AuthResponse;
 import com.cohabit.dto.LoginRequest;
 import com.cohabit.dto.RegisterRequest;
 import com.cohabit.service.AuthService;
+import com.cohabit.service.RateLimitService;
 import com.cohabit.util.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -24,10 +25,14 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private RateLimitService rateLimitService;
+
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<AuthResponse>> register(
             @Valid @RequestBody RegisterRequest request,
             HttpServletRequest httpRequest) {
+        rateLimitService.checkRegister(httpRequest.getRemoteAddr());
         AuthResponse response = authService.register(request, httpRequest);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
@@ -38,6 +43,7 @@ public class AuthController {
     public ResponseEntity<ApiResponse<AuthResponse>> login(
             @Valid @RequestBody LoginRequest request,
             HttpServletRequest httpRequest) {
+        rateLimitService.checkLogin(request.getUsername(), httpRequest.getRemoteAddr());
         AuthResponse response = authService.login(request, httpRequest);
         return ResponseEntity.ok(ApiResponse.success("Login successful", response));
     }
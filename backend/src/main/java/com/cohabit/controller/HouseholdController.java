@@ -2,14 +2,19 @@ package com.cohabit.controller;
 
 import com.cohabit.dto.*;
 import com.cohabit.service.HouseholdService;
-import com.cohabit.util.JwtUtil;
+import com.cohabit.service.HouseholdVersionService;
+import com.cohabit.service.RateLimitService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/household")
@@ -17,22 +22,33 @@ import java.util.List;
 public class HouseholdController {
 
     private final HouseholdService householdService;
-    private final JwtUtil jwtUtil;
+    private final RateLimitService rateLimitService;
+    private final HouseholdVersionService householdVersionService;
 
     /**
      * Get current user's household
      * Returns null/empty if user is not in a household
+     * Answers 304 when If-None-Match carries the household's current ETag.
      */
     @GetMapping("/current")
     public ResponseEntity<ApiResponse<HouseholdResponse>> getCurrentHousehold(HttpServletRequest request) {
         Long userId = getUserIdFromRequest(request);
+
+        Optional<String> eTag = householdVersionService.currentETag(userId);
+        if (eTag.isPresent() && householdVersionService.isNotModified(request, eTag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get())
+                    .cacheControl(HouseholdVersionService.VIEWER_CACHE_CONTROL).build();
+        }
+
         HouseholdResponse household = householdService.getCurrentHousehold(userId);
 
         if (household == null) {
             return ResponseEntity.ok(ApiResponse.success("Currently not in a group", null));
         }
 
-        return ResponseEntity.ok(ApiResponse.success("Household retrieved successfully", household));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(HouseholdVersionService.VIEWER_CACHE_CONTROL);
+        eTag.ifPresent(response::eTag);
+        return response.body(ApiResponse.success("Household retrieved successfully", household));
     }
 
     /**
@@ -52,7 +68,9 @@ public class HouseholdController {
      */
     @GetMapping("/find/{inviteCode}")
     public ResponseEntity<ApiResponse<HouseholdPreviewResponse>> findHousehold(
-            @PathVariable String inviteCode) {
+            @PathVariable String inviteCode,
+            HttpServletRequest request) {
+        rateLimitService.checkInviteLookup(inviteCode, request.getRemoteAddr());
         HouseholdPreviewResponse preview = householdService.findByInviteCode(inviteCode);
         return ResponseEntity.ok(ApiResponse.success("Household found", preview));
     }
@@ -106,13 +124,12 @@ public class HouseholdController {
     }
 
     /**
-     * Extract user ID from JWT token in request
+     * Get the user ID resolved by JwtAuthenticationFilter
      */
     private Long getUserIdFromRequest(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            return jwtUtil.extractUserId(token);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Long userId) {
+            return userId;
         }
         throw new RuntimeException("Authorization header missing or invalid");
     }
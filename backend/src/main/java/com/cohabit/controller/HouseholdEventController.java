@@ -0,0 +1,40 @@
+package com.cohabit.controller;
+
+import com.cohabit.service.HouseholdEventBroadcaster;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/households")
+@RequiredArgsConstructor
+public class HouseholdEventController {
+
+    private final HouseholdEventBroadcaster householdEventBroadcaster;
+
+    /**
+     * Stream task and membership events for the current user's household
+     * GET /households/current/events (text/event-stream, Authorization header required)
+     * After a reconnect, catch up with GET /tasks/changes.
+     */
+    @GetMapping(value = "/current/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(HttpServletRequest httpRequest) {
+        Long userId = getUserIdFromRequest(httpRequest);
+        return householdEventBroadcaster.subscribe(userId, httpRequest);
+    }
+
+    /**
+     * Get the user ID resolved by JwtAuthenticationFilter
+     */
+    private Long getUserIdFromRequest(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Long userId) {
+            return userId;
+        }
+        throw new RuntimeException("Authorization header missing or invalid");
+    }
+}
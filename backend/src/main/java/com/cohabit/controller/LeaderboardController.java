@@ -1,15 +1,22 @@
 package com.cohabit.controller;
 
 import com.cohabit.dto.ApiResponse;
+import com.cohabit.dto.GlobalLeaderboardResponse;
 import com.cohabit.dto.LeaderboardResponse;
+import com.cohabit.service.GlobalLeaderboardService;
+import com.cohabit.service.HouseholdVersionService;
 import com.cohabit.service.LeaderboardService;
-import com.cohabit.util.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/leaderboard")
@@ -17,28 +24,78 @@ import java.util.List;
 public class LeaderboardController {
 
     private final LeaderboardService leaderboardService;
-    private final JwtUtil jwtUtil;
+    private final HouseholdVersionService householdVersionService;
+    private final GlobalLeaderboardService globalLeaderboardService;
 
     /**
      * Get leaderboard for current user's household
-     * GET /leaderboard
+     * GET /leaderboard                          - every member, in rank order
+     * GET /leaderboard?mode=top&limit=          - the top members
+     * GET /leaderboard?mode=around-me&radius=   - the caller and the members ranked next to them
+     * GET /leaderboard?window=week|month|<n>d&limit=  - ranked by XP earned in that window
+     * Answers 304 when If-None-Match carries the household's current ETag.
      */
     @GetMapping
     public ResponseEntity<ApiResponse<List<LeaderboardResponse>>> getLeaderboard(
+            @RequestParam(required = false) String mode,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer radius,
+            @RequestParam(required = false) String window,
             HttpServletRequest httpRequest) {
         Long userId = getUserIdFromRequest(httpRequest);
-        List<LeaderboardResponse> leaderboard = leaderboardService.getHouseholdLeaderboard(userId);
-        return ResponseEntity.ok(ApiResponse.success("Leaderboard retrieved successfully", leaderboard));
+
+        boolean windowed = window != null && !window.isBlank() && !window.equals("all");
+
+        // A window slides with the calendar as well as with changes, so its tag also names the day
+        Optional<String> eTag = householdVersionService.currentETag(userId)
+                .map(tag -> windowed ? tag.substring(0, tag.length() - 1) + "-d" + LocalDate.now() + "\"" : tag);
+        if (eTag.isPresent() && householdVersionService.isNotModified(httpRequest, eTag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get())
+                    .cacheControl(HouseholdVersionService.VIEWER_CACHE_CONTROL).build();
+        }
+
+        List<LeaderboardResponse> leaderboard;
+        if (windowed) {
+            if (mode != null && !mode.isBlank() && !mode.equals("top")) {
+                throw new IllegalArgumentException("Windowed leaderboards support only the top mode");
+            }
+            leaderboard = leaderboardService.getWindowLeaderboard(userId, window, limit);
+        } else if (mode == null || mode.isBlank()) {
+            leaderboard = leaderboardService.getHouseholdLeaderboard(userId);
+        } else if (mode.equals("top")) {
+            leaderboard = leaderboardService.getTopLeaderboard(userId, limit);
+        } else if (mode.equals("around-me")) {
+            leaderboard = leaderboardService.getLeaderboardAroundUser(userId, radius);
+        } else {
+            throw new IllegalArgumentException("Unknown leaderboard mode: " + mode);
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(HouseholdVersionService.VIEWER_CACHE_CONTROL);
+        eTag.ifPresent(response::eTag);
+        return response.body(ApiResponse.success("Leaderboard retrieved successfully", leaderboard));
+    }
+
+    /**
+     * Get the global leaderboard across all households, plus the caller's own rank
+     * GET /leaderboard/global?limit=
+     * Served from memory; may lag recent changes by up to the configured refresh interval.
+     */
+    @GetMapping("/global")
+    public ResponseEntity<ApiResponse<GlobalLeaderboardResponse>> getGlobalLeaderboard(
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest httpRequest) {
+        Long userId = getUserIdFromRequest(httpRequest);
+        GlobalLeaderboardResponse leaderboard = globalLeaderboardService.getGlobalLeaderboard(userId, limit);
+        return ResponseEntity.ok(ApiResponse.success("Global leaderboard retrieved successfully", leaderboard));
     }
 
     /**
-     * Extract user ID from JWT token in request
+     * Get the user ID resolved by JwtAuthenticationFilter
      */
     private Long getUserIdFromRequest(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            return jwtUtil.extractUserId(token);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Long userId) {
+            return userId;
         }
         throw new RuntimeException("Authorization header missing or invalid");
     }
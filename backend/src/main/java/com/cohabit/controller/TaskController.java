@@ -1,37 +1,106 @@
 package com.cohabit.controller;
 
 import com.cohabit.dto.ApiResponse;
+import com.cohabit.dto.BatchCreateTaskRequest;
+import com.cohabit.dto.BatchCreateTaskResponse;
 import com.cohabit.dto.CreateTaskRequest;
+import com.cohabit.dto.TaskChangesResponse;
+import com.cohabit.dto.TaskPageResponse;
 import com.cohabit.dto.UpdateTaskRequest;
 import com.cohabit.dto.TaskResponse;
+import com.cohabit.service.HouseholdVersionService;
 import com.cohabit.service.TaskService;
-import com.cohabit.util.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/tasks")
 @RequiredArgsConstructor
 public class TaskController {
 
     private final TaskService taskService;
-    private final JwtUtil jwtUtil;
+    private final HouseholdVersionService householdVersionService;
 
     /**
      * Get all tasks for current user's household
      * GET /tasks
+     * Answers 304 when If-None-Match carries the household's current ETag.
      */
     @GetMapping
     public ResponseEntity<ApiResponse<java.util.List<TaskResponse>>> getAllTasks(
             HttpServletRequest httpRequest) {
         Long userId = getUserIdFromRequest(httpRequest);
+
+        Optional<String> eTag = householdVersionService.currentETag(userId);
+        if (eTag.isPresent() && householdVersionService.isNotModified(httpRequest, eTag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get())
+                    .cacheControl(HouseholdVersionService.VIEWER_CACHE_CONTROL).build();
+        }
+
         java.util.List<TaskResponse> tasks = taskService.getAllTasksForUserHousehold(userId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(HouseholdVersionService.VIEWER_CACHE_CONTROL);
+        eTag.ifPresent(response::eTag);
+        return response.body(ApiResponse.success("Tasks retrieved successfully", tasks));
+    }
+
+    /**
+     * Get one page of tasks, optionally filtered by status, assignee and due-date window
+     * GET /tasks/page?status=&assigneeId=&dueFrom=&dueTo=&cursor=&limit=
+     */
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<TaskPageResponse>> getTaskPage(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest httpRequest) {
+        Long userId = getUserIdFromRequest(httpRequest);
+        TaskPageResponse page = taskService.getTaskPage(
+                userId, status, assigneeId, dueFrom, dueTo, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success("Tasks retrieved successfully", page));
+    }
+
+    /**
+     * Search tasks by words (or word prefixes) in their title and description
+     * GET /tasks/search?q=&limit=
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<java.util.List<TaskResponse>>> searchTasks(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest httpRequest) {
+        Long userId = getUserIdFromRequest(httpRequest);
+        java.util.List<TaskResponse> tasks = taskService.searchTasks(userId, q, limit);
         return ResponseEntity.ok(ApiResponse.success("Tasks retrieved successfully", tasks));
     }
 
+    /**
+     * Get tasks created, changed or deleted since a cursor, for incremental sync
+     * GET /tasks/changes?since=&limit=
+     * Omit since for the first sync, and again whenever resyncRequired comes back.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<TaskChangesResponse>> getTaskChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest httpRequest) {
+        Long userId = getUserIdFromRequest(httpRequest);
+        TaskChangesResponse changes = taskService.getTaskChanges(userId, since, limit);
+        return ResponseEntity.ok(ApiResponse.success("Task changes retrieved successfully", changes));
+    }
+
     /**
      * Create a new task
      * POST /tasks
@@ -45,6 +114,20 @@ public class TaskController {
         return ResponseEntity.ok(ApiResponse.success("Task created successfully", taskResponse));
     }
 
+    /**
+     * Create many tasks at once, with a result per item
+     * POST /tasks/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<BatchCreateTaskResponse>> createTasks(
+            @Valid @RequestBody BatchCreateTaskRequest request,
+            HttpServletRequest httpRequest) {
+        Long userId = getUserIdFromRequest(httpRequest);
+        BatchCreateTaskResponse response = taskService.createTasks(request.getTasks(), userId);
+        return ResponseEntity.ok(ApiResponse.success(
+                response.getCreated() + " of " + request.getTasks().size() + " tasks created", response));
+    }
+
     /**
      * Toggle task completion status
      * POST /tasks/{id}/toggle
@@ -82,13 +165,12 @@ public class TaskController {
     }
 
     /**
-     * Extract user ID from JWT token in request
+     * Get the user ID resolved by JwtAuthenticationFilter
      */
     private Long getUserIdFromRequest(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            return jwtUtil.extractUserId(token);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Long userId) {
+            return userId;
         }
         throw new RuntimeException("Authorization header missing or invalid");
     }
@@ -0,0 +1,20 @@
+package com.cohabit.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateTaskRequest {
+
+    @NotEmpty(message = "At least one task is required")
+    @Size(max = 200, message = "Cannot create more than 200 tasks at once")
+    private List<@Valid CreateTaskRequest> tasks;
+}
@@ -0,0 +1,37 @@
+package com.cohabit.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchCreateTaskResponse {
+    private int created;
+    private int failed;
+    private List<ItemResult> results; // One entry per request item, in request order
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ItemResult {
+        private int index; // Position of the item in the request
+        private boolean success;
+        private TaskResponse task; // Set when success
+        private String error; // Set when not success
+
+        public static ItemResult success(int index, TaskResponse task) {
+            return new ItemResult(index, true, task, null);
+        }
+
+        public static ItemResult failure(int index, String error) {
+            return new ItemResult(index, false, null, error);
+        }
+    }
+}
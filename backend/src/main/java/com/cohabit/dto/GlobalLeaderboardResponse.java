@@ -0,0 +1,20 @@
+package com.cohabit.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GlobalLeaderboardResponse {
+    private List<LeaderboardResponse> top;   // Highest XP across all households, in rank order
+    private LeaderboardResponse me;          // The caller's own standing
+    private boolean myRankEstimated;         // Caller is outside the top: rank is estimated from an XP histogram
+    private LocalDateTime asOf;              // When the top list was last merged
+}
@@ -12,7 +12,7 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class JoinHouseholdRequest {
     @NotBlank(message = "Invite code is required")
-    @Size(min = 6, max = 6, message = "Invite code must be exactly 6 characters")
-    @Pattern(regexp = "^[A-Z0-9]{6}$", message = "Invite code must be 6 alphanumeric characters")
+    @Size(min = 6, max = 12, message = "Invite code must be 6 to 12 characters")
+    @Pattern(regexp = "^[A-Z0-9]{6,12}$", message = "Invite code must be 6 to 12 alphanumeric characters")
     private String inviteCode;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.cohabit.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskChangesResponse {
+    private List<TaskResponse> upserts;      // Created or changed tasks, with their current assignees
+    private List<Long> deletedTaskIds;       // Tasks to drop from the local copy
+    private String nextCursor;               // Pass back as ?since= on the next sync
+    private boolean hasMore;                 // More changes are ready now; call again with nextCursor
+    private boolean resyncRequired;          // Cursor is too old or from another household: sync again without since
+}
@@ -0,0 +1,18 @@
+package com.cohabit.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskPageResponse {
+    private List<TaskResponse> tasks;
+    private String nextCursor; // Pass back as ?cursor= to fetch the next page, null on the last page
+    private boolean hasMore;
+}
@@ -22,7 +22,7 @@ public class Household {
     @Column(name = "name", nullable = false)
     private String name;
 
-    @Column(name = "invite_code", unique = true, nullable = false, length = 6)
+    @Column(name = "invite_code", unique = true, nullable = false, length = 12)
     private String inviteCode;
 
     @Column(name = "address")
@@ -49,6 +49,10 @@ public class Household {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Only ever written by HouseholdRepository.incrementChangeVersion, never by entity saves
+    @Column(name = "change_version", insertable = false, updatable = false)
+    private Long changeVersion;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -8,7 +8,9 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "task_completions")
+@Table(name = "task_completions", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"task_id", "completed_by_user_id"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
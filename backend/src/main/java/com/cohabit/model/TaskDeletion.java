@@ -0,0 +1,40 @@
+package com.cohabit.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone for a deleted task, so the delta feed can tell clients to drop it.
+ * Plain ids rather than associations: the task row no longer exists.
+ */
+@Entity
+@Table(name = "task_deletions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "household_id", nullable = false)
+    private Long householdId;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (deletedAt == null) {
+            deletedAt = LocalDateTime.now();
+        }
+    }
+}
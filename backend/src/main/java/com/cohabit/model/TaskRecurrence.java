@@ -0,0 +1,53 @@
+package com.cohabit.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A recurring task series. The head task is the most recently generated occurrence;
+ * nextDueAt is the series high-water mark (due date of the next occurrence to generate).
+ */
+@Entity
+@Table(name = "task_recurrences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskRecurrence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "household_id", nullable = false)
+    private Long householdId;
+
+    @Column(name = "head_task_id", nullable = false, unique = true)
+    private Long headTaskId;
+
+    @Column(name = "next_due_at", nullable = false)
+    private LocalDateTime nextDueAt;
+
+    @Column(name = "occurrences_generated")
+    private Integer occurrencesGenerated = 0;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
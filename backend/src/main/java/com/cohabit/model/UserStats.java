@@ -0,0 +1,65 @@
+package com.cohabit.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Per-household leaderboard counters for one member, maintained by UserStatsService.
+ * Counters are written with atomic SQL increments rather than through this entity.
+ */
+@Entity
+@Table(name = "user_stats", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "household_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "household_id", nullable = false)
+    private Long householdId;
+
+    @Column(name = "tasks_completed_total")
+    private Integer tasksCompletedTotal = 0;
+
+    @Column(name = "tasks_completed_this_week")
+    private Integer tasksCompletedThisWeek = 0;
+
+    // Share of the household's completions made by this user, as a percentage
+    @Column(name = "completion_rate", precision = 5, scale = 2)
+    private BigDecimal completionRate = BigDecimal.ZERO;
+
+    // XP earned in this household (users.total_xp is across all households)
+    @Column(name = "total_xp")
+    private Integer totalXp = 0;
+
+    @Column(name = "weekly_xp")
+    private Integer weeklyXp = 0;
+
+    // Monday of the week the weekly counters belong to
+    @Column(name = "week_start_date")
+    private LocalDate weekStartDate;
+
+    @Column(name = "is_top_performer")
+    private Boolean isTopPerformer = false;
+
+    // Bumped by every change to total_xp or tasks_completed_total, under the row lock
+    @Column(name = "revision", insertable = false, updatable = false)
+    private Long revision;
+
+    @Column(name = "last_updated", insertable = false, updatable = false)
+    private LocalDateTime lastUpdated;
+}
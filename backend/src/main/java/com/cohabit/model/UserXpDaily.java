@@ -0,0 +1,41 @@
+package com.cohabit.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One member's XP and completions in a household on one day. Windowed leaderboards sum
+ * these buckets; UserStatsService keeps them current with atomic increments.
+ */
+@Entity
+@Table(name = "user_xp_daily", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"household_id", "user_id", "day"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserXpDaily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "household_id", nullable = false)
+    private Long householdId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "xp", nullable = false)
+    private Integer xp = 0;
+
+    @Column(name = "completions", nullable = false)
+    private Integer completions = 0;
+}
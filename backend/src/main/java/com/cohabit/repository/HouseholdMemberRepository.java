@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +29,20 @@ public interface HouseholdMemberRepository extends JpaRepository<HouseholdMember
     @Query("SELECT hm FROM HouseholdMember hm JOIN FETCH hm.user WHERE hm.household.id = :householdId")
     List<HouseholdMember> findByHouseholdIdWithUser(@Param("householdId") Long householdId);
     
+    // Of the given user IDs, return those that are members of the household
+    @Query("SELECT hm.user.id FROM HouseholdMember hm WHERE hm.household.id = :householdId AND hm.user.id IN :userIds")
+    List<Long> findMemberUserIds(@Param("householdId") Long householdId, @Param("userIds") Collection<Long> userIds);
+    
+    // Household id and change version for a user's membership, without loading any entities
+    @Query("SELECT hm.household.id AS householdId, hm.household.changeVersion AS changeVersion " +
+           "FROM HouseholdMember hm WHERE hm.user.id = :userId")
+    Optional<HouseholdVersion> findHouseholdVersionByUserId(@Param("userId") Long userId);
+
+    interface HouseholdVersion {
+        Long getHouseholdId();
+        Long getChangeVersion();
+    }
+    
     boolean existsByUserAndHousehold(User user, Household household);
     
     boolean existsByUser(User user);
@@ -2,10 +2,12 @@ package com.cohabit.repository;
 
 import com.cohabit.model.Household;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
@@ -20,4 +22,15 @@ public interface HouseholdRepository extends JpaRepository<Household, Long> {
     
     @Query("SELECT h FROM Household h LEFT JOIN FETCH h.joinRequests jr LEFT JOIN FETCH jr.user WHERE h.id = :id")
     Optional<Household> findByIdWithJoinRequests(@Param("id") Long id);
-}
\ No newline at end of file
+
+    // Bump the change version; updated_at is set to itself so ON UPDATE CURRENT_TIMESTAMP does not fire
+    @Modifying
+    @Query(value = "UPDATE households SET change_version = change_version + 1, updated_at = updated_at " +
+                   "WHERE id = :id", nativeQuery = true)
+    int incrementChangeVersion(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "UPDATE households SET change_version = change_version + 1, updated_at = updated_at " +
+                   "WHERE id IN (:ids)", nativeQuery = true)
+    int incrementChangeVersions(@Param("ids") Collection<Long> ids);
+}
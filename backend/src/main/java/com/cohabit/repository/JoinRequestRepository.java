@@ -30,4 +30,7 @@ public interface JoinRequestRepository extends JpaRepository<JoinRequest, Long>
     // FIX: Pass status as a parameter here too
     @Query("SELECT COUNT(jr) FROM JoinRequest jr WHERE jr.household.id = :householdId AND jr.status = :status")
     int countPendingByHouseholdId(@Param("householdId") Long householdId, @Param("status") JoinRequest.RequestStatus status);
+
+    @Query("SELECT jr.household.id FROM JoinRequest jr WHERE jr.user.id = :userId AND jr.status = :status")
+    List<Long> findHouseholdIdsByUserIdAndStatus(@Param("userId") Long userId, @Param("status") JoinRequest.RequestStatus status);
 }
\ No newline at end of file
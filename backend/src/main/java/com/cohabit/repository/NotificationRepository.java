@@ -0,0 +1,23 @@
+package com.cohabit.repository;
+
+import com.cohabit.model.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationRepositoryCustom {
+
+    // A user's notifications, newest first
+    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+
+    // Due notifications not yet delivered, dead-lettered or in flight (the dispatcher backlog)
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.sentAt IS NULL AND n.failedAt IS NULL " +
+           "AND n.scheduledFor <= :now AND (n.nextAttemptAt IS NULL OR n.nextAttemptAt <= :now)")
+    long countDue(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,30 @@
+package com.cohabit.repository;
+
+import com.cohabit.model.Notification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC operations for the notification delivery queue.
+ * Claiming needs FOR UPDATE SKIP LOCKED, which JPQL cannot express.
+ */
+public interface NotificationRepositoryCustom {
+
+    // Lock up to limit due, unsent rows that no other transaction holds and no worker has in flight;
+    // call inside a transaction
+    List<Notification> claimDue(LocalDateTime now, int limit);
+
+    // Count an attempt and hide the rows from other workers until the given time
+    int markInFlight(Collection<Long> ids, LocalDateTime until);
+
+    // Mark rows delivered with a single UPDATE
+    int markSent(Collection<Long> ids, LocalDateTime sentAt);
+
+    // Push failed rows back so they are retried later rather than reclaimed right away
+    int reschedule(Collection<Long> ids, LocalDateTime nextAttemptAt);
+
+    // Dead-letter rows that used up their attempts; they are never claimed again
+    int markFailed(Collection<Long> ids, LocalDateTime failedAt);
+}
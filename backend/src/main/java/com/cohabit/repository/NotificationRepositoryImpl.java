@@ -0,0 +1,90 @@
+package com.cohabit.repository;
+
+import com.cohabit.model.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class NotificationRepositoryImpl implements NotificationRepositoryCustom {
+
+    // Served by idx_dispatch_queue (sent_at, failed_at, scheduled_for): only queued rows are scanned
+    private static final String CLAIM_SQL =
+            "SELECT id, user_id, household_id, type, title, message, related_task_id, is_read, " +
+            "       scheduled_for, due_at, attempts, next_attempt_at, failed_at, sent_at, created_at " +
+            "FROM notifications " +
+            "WHERE sent_at IS NULL AND failed_at IS NULL AND scheduled_for <= ? " +
+            "AND (next_attempt_at IS NULL OR next_attempt_at <= ?) " +
+            "ORDER BY scheduled_for " +
+            "LIMIT ? " +
+            "FOR UPDATE SKIP LOCKED";
+
+    private static final RowMapper<Notification> ROW_MAPPER = (rs, rowNum) -> {
+        Notification n = new Notification();
+        n.setId(rs.getLong("id"));
+        n.setUserId(rs.getLong("user_id"));
+        n.setHouseholdId(rs.getObject("household_id", Long.class));
+        n.setType(rs.getString("type"));
+        n.setTitle(rs.getString("title"));
+        n.setMessage(rs.getString("message"));
+        n.setRelatedTaskId(rs.getObject("related_task_id", Long.class));
+        n.setIsRead(rs.getBoolean("is_read"));
+        n.setScheduledFor(toLocalDateTime(rs.getTimestamp("scheduled_for")));
+        n.setDueAt(toLocalDateTime(rs.getTimestamp("due_at")));
+        n.setAttempts(rs.getInt("attempts"));
+        n.setNextAttemptAt(toLocalDateTime(rs.getTimestamp("next_attempt_at")));
+        n.setFailedAt(toLocalDateTime(rs.getTimestamp("failed_at")));
+        n.setSentAt(toLocalDateTime(rs.getTimestamp("sent_at")));
+        n.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        return n;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Notification> claimDue(LocalDateTime now, int limit) {
+        return jdbcTemplate.query(CLAIM_SQL, ROW_MAPPER, Timestamp.valueOf(now), Timestamp.valueOf(now), limit);
+    }
+
+    @Override
+    public int markInFlight(Collection<Long> ids, LocalDateTime until) {
+        return updateIds("UPDATE notifications SET attempts = attempts + 1, next_attempt_at = ? WHERE id IN ", ids, until);
+    }
+
+    @Override
+    public int markSent(Collection<Long> ids, LocalDateTime sentAt) {
+        return updateIds("UPDATE notifications SET sent_at = ? WHERE id IN ", ids, sentAt);
+    }
+
+    @Override
+    public int reschedule(Collection<Long> ids, LocalDateTime nextAttemptAt) {
+        return updateIds("UPDATE notifications SET next_attempt_at = ? WHERE id IN ", ids, nextAttemptAt);
+    }
+
+    @Override
+    public int markFailed(Collection<Long> ids, LocalDateTime failedAt) {
+        return updateIds("UPDATE notifications SET failed_at = ? WHERE id IN ", ids, failedAt);
+    }
+
+    private int updateIds(String sqlPrefix, Collection<Long> ids, LocalDateTime value) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(Timestamp.valueOf(value));
+        args.addAll(ids);
+        return jdbcTemplate.update(sqlPrefix + "(" + placeholders + ")", args.toArray());
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
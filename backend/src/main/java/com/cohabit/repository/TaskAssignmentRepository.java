@@ -4,15 +4,17 @@ import com.cohabit.model.TaskAssignment;
 import com.cohabit.model.Task;
 import com.cohabit.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TaskAssignmentRepository extends JpaRepository<TaskAssignment, Long> {
+public interface TaskAssignmentRepository extends JpaRepository<TaskAssignment, Long>, TaskAssignmentRepositoryCustom {
 
     // Find all assignments for a task
     List<TaskAssignment> findByTask(Task task);
@@ -26,6 +28,21 @@ public interface TaskAssignmentRepository extends JpaRepository<TaskAssignment,
             @Param("taskId") Long taskId,
             @Param("status") TaskAssignment.AssignmentStatus status);
 
+    // Find assignments for a set of tasks with user details eagerly loaded
+    @Query("SELECT ta FROM TaskAssignment ta " +
+           "JOIN FETCH ta.assignee " +
+           "WHERE ta.task.id IN :taskIds " +
+           "AND ta.status = :status")
+    List<TaskAssignment> findByTaskIdsAndStatusWithUser(
+            @Param("taskIds") Collection<Long> taskIds,
+            @Param("status") TaskAssignment.AssignmentStatus status);
+
+    // Find every assignment (any status) for a set of tasks, in insertion order
+    @Query("SELECT ta FROM TaskAssignment ta " +
+           "WHERE ta.task.id IN :taskIds " +
+           "ORDER BY ta.id")
+    List<TaskAssignment> findByTaskIdsOrderById(@Param("taskIds") Collection<Long> taskIds);
+
     // Find all assignments for a specific user
     List<TaskAssignment> findByAssigneeIdAndStatus(
             Long assigneeId,
@@ -39,4 +56,9 @@ public interface TaskAssignmentRepository extends JpaRepository<TaskAssignment,
 
     // Delete all assignments for a task
     void deleteByTask(Task task);
+
+    // Bulk delete all assignments for a task in one statement (no entities loaded)
+    @Modifying
+    @Query("DELETE FROM TaskAssignment ta WHERE ta.task.id = :taskId")
+    int deleteAllByTaskId(@Param("taskId") Long taskId);
 }
@@ -0,0 +1,26 @@
+package com.cohabit.repository;
+
+import com.cohabit.model.TaskAssignment;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch operations for task assignments.
+ * TaskAssignment uses IDENTITY ids, so Hibernate cannot batch its inserts.
+ */
+public interface TaskAssignmentRepositoryCustom {
+
+    record AssignmentRow(Long taskId, Long assigneeId, TaskAssignment.AssignmentStatus status) {
+    }
+
+    // Insert assignment rows as a single JDBC batch
+    void batchInsert(List<AssignmentRow> rows);
+
+    // Insert ACTIVE assignments for one task as a single JDBC batch
+    void batchInsertActive(Long taskId, Collection<Long> assigneeIds);
+
+    // Insert ACTIVE assignments for many tasks (task id -> assignee ids) as a single JDBC batch
+    void batchInsertActive(Map<Long, ? extends Collection<Long>> assigneeIdsByTask);
+}
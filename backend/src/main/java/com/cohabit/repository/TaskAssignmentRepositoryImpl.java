@@ -0,0 +1,53 @@
+package com.cohabit.repository;
+
+import com.cohabit.model.TaskAssignment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class TaskAssignmentRepositoryImpl implements TaskAssignmentRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO task_assignments (task_id, assignee_user_id, assigned_at, status) " +
+            "VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchInsertActive(Long taskId, Collection<Long> assigneeIds) {
+        batchInsertActive(Map.of(taskId, assigneeIds));
+    }
+
+    @Override
+    public void batchInsertActive(Map<Long, ? extends Collection<Long>> assigneeIdsByTask) {
+        List<AssignmentRow> rows = new ArrayList<>();
+        assigneeIdsByTask.forEach((taskId, assigneeIds) -> {
+            for (Long assigneeId : assigneeIds) {
+                rows.add(new AssignmentRow(taskId, assigneeId, TaskAssignment.AssignmentStatus.ACTIVE));
+            }
+        });
+        batchInsert(rows);
+    }
+
+    @Override
+    public void batchInsert(List<AssignmentRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Timestamp assignedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.taskId());
+            ps.setLong(2, row.assigneeId());
+            ps.setTimestamp(3, assignedAt);
+            ps.setString(4, row.status().name());
+        });
+    }
+}
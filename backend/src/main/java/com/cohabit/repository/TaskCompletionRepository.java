@@ -4,8 +4,12 @@ import com.cohabit.model.TaskCompletion;
 import com.cohabit.model.Task;
 import com.cohabit.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,5 +23,25 @@ public interface TaskCompletionRepository extends JpaRepository<TaskCompletion,
     Optional<TaskCompletion> findByTaskAndCompletedBy(Task task, User user);
     
     List<TaskCompletion> findByTaskHouseholdId(Long householdId);
-}
 
+    // Insert a completion unless this user already has one for the task (unique task_id, completed_by_user_id).
+    // Returns 1 if inserted, 0 if a concurrent toggle got there first.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO task_completions " +
+                   "(task_id, completed_by_user_id, completed_at, verification_status, xp_awarded, bonus_xp) " +
+                   "VALUES (:taskId, :userId, :completedAt, 'AUTO_APPROVED', :xpAwarded, 0)", nativeQuery = true)
+    int insertIfAbsent(@Param("taskId") Long taskId,
+                       @Param("userId") Long userId,
+                       @Param("xpAwarded") int xpAwarded,
+                       @Param("completedAt") LocalDateTime completedAt);
+
+    // Returns 1 if this call removed the row, 0 if it was already gone
+    @Modifying
+    @Query("DELETE FROM TaskCompletion tc WHERE tc.id = :id")
+    int deleteByIdReturningCount(@Param("id") Long id);
+
+    // Bulk delete every completion of a task in one statement
+    @Modifying
+    @Query("DELETE FROM TaskCompletion tc WHERE tc.task.id = :taskId")
+    int deleteAllByTaskId(@Param("taskId") Long taskId);
+}
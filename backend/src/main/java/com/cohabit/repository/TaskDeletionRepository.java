@@ -0,0 +1,32 @@
+package com.cohabit.repository;
+
+import com.cohabit.model.TaskDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskDeletionRepository extends JpaRepository<TaskDeletion, Long> {
+
+    // Tombstones after the (deletedAt, id) cursor and no newer than the horizon, oldest first
+    @Query("SELECT d FROM TaskDeletion d " +
+           "WHERE d.householdId = :householdId AND d.deletedAt <= :horizon " +
+           "AND (d.deletedAt > :afterDeletedAt OR (d.deletedAt = :afterDeletedAt AND d.id > :afterId)) " +
+           "ORDER BY d.deletedAt ASC, d.id ASC")
+    List<TaskDeletion> findChangesSince(
+            @Param("householdId") Long householdId,
+            @Param("afterDeletedAt") LocalDateTime afterDeletedAt,
+            @Param("afterId") Long afterId,
+            @Param("horizon") LocalDateTime horizon,
+            Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM TaskDeletion d WHERE d.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
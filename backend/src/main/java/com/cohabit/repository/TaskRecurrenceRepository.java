@@ -0,0 +1,46 @@
+package com.cohabit.repository;
+
+import com.cohabit.model.TaskRecurrence;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskRecurrenceRepository extends JpaRepository<TaskRecurrence, Long> {
+
+    Optional<TaskRecurrence> findByHeadTaskId(Long headTaskId);
+
+    // Lock the series headed by this task, waiting for a materializer run that holds it
+    @Query(value = "SELECT * FROM task_recurrences WHERE head_task_id = :headTaskId FOR UPDATE",
+           nativeQuery = true)
+    Optional<TaskRecurrence> lockByHeadTaskId(@Param("headTaskId") Long headTaskId);
+
+    // Next chunk of households (in id order, after the given id) with occurrences due before the horizon
+    @Query("SELECT DISTINCT r.householdId FROM TaskRecurrence r " +
+           "WHERE r.nextDueAt <= :horizon AND r.householdId > :afterHouseholdId " +
+           "ORDER BY r.householdId")
+    List<Long> findDueHouseholdIds(
+            @Param("horizon") LocalDateTime horizon,
+            @Param("afterHouseholdId") Long afterHouseholdId,
+            Pageable pageable);
+
+    // Claim the due series of these households, skipping any another instance is materializing;
+    // call inside the chunk's transaction so the rows stay locked until it commits
+    @Query(value = "SELECT * FROM task_recurrences " +
+                   "WHERE household_id IN (:householdIds) AND next_due_at <= :horizon " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<TaskRecurrence> claimDueByHouseholdIds(
+            @Param("householdIds") Collection<Long> householdIds,
+            @Param("horizon") LocalDateTime horizon);
+
+    @Query("SELECT MIN(r.nextDueAt) FROM TaskRecurrence r")
+    Optional<LocalDateTime> findEarliestNextDueAt();
+}
@@ -2,20 +2,103 @@ package com.cohabit.repository;
 
 import com.cohabit.model.Task;
 import com.cohabit.model.Household;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
 
     // Find all tasks for a household
     List<Task> findByHousehold(Household household);
 
+    // Find all tasks for a household with the creator eagerly loaded
+    @Query("SELECT t FROM Task t " +
+           "JOIN FETCH t.createdBy " +
+           "WHERE t.household.id = :householdId")
+    List<Task> findByHouseholdIdWithCreator(@Param("householdId") Long householdId);
+
+    // Find tasks by IDs with the creator eagerly loaded
+    @Query("SELECT t FROM Task t " +
+           "JOIN FETCH t.createdBy " +
+           "WHERE t.id IN :taskIds")
+    List<Task> findByIdsWithCreator(@Param("taskIds") Collection<Long> taskIds);
+
+    // Keyset page of household tasks, newest changes first.
+    // Each filter is skipped when its parameter is null; the cursor is the (updatedAt, id) of the last row seen.
+    @Query("SELECT t FROM Task t " +
+           "JOIN FETCH t.createdBy " +
+           "WHERE t.household.id = :householdId " +
+           "AND (:status IS NULL OR t.status = :status) " +
+           "AND (:dueFrom IS NULL OR t.dueDate >= :dueFrom) " +
+           "AND (:dueTo IS NULL OR t.dueDate < :dueTo) " +
+           "AND (:assigneeId IS NULL OR EXISTS (" +
+           "    SELECT 1 FROM TaskAssignment ta " +
+           "    WHERE ta.task = t AND ta.assignee.id = :assigneeId " +
+           "    AND ta.status = com.cohabit.model.TaskAssignment.AssignmentStatus.ACTIVE)) " +
+           "AND (:cursorUpdatedAt IS NULL OR t.updatedAt < :cursorUpdatedAt " +
+           "    OR (t.updatedAt = :cursorUpdatedAt AND t.id < :cursorId)) " +
+           "ORDER BY t.updatedAt DESC, t.id DESC")
+    List<Task> findPageByHouseholdId(
+            @Param("householdId") Long householdId,
+            @Param("status") Task.TaskStatus status,
+            @Param("assigneeId") Long assigneeId,
+            @Param("dueFrom") LocalDateTime dueFrom,
+            @Param("dueTo") LocalDateTime dueTo,
+            @Param("cursorUpdatedAt") LocalDateTime cursorUpdatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    // Tasks changed after the (updatedAt, id) cursor and no newer than the horizon, oldest first
+    @Query("SELECT t FROM Task t JOIN FETCH t.createdBy " +
+           "WHERE t.household.id = :householdId AND t.updatedAt <= :horizon " +
+           "AND (t.updatedAt > :afterUpdatedAt OR (t.updatedAt = :afterUpdatedAt AND t.id > :afterId)) " +
+           "ORDER BY t.updatedAt ASC, t.id ASC")
+    List<Task> findChangesSince(
+            @Param("householdId") Long householdId,
+            @Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+            @Param("afterId") Long afterId,
+            @Param("horizon") LocalDateTime horizon,
+            Pageable pageable);
+
+    // Searchable text of every task in a household, for building the in-memory search index
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description " +
+           "FROM Task t WHERE t.household.id = :householdId")
+    List<TaskText> findTextByHouseholdId(@Param("householdId") Long householdId);
+
+    interface TaskText {
+        Long getId();
+        String getTitle();
+        String getDescription();
+    }
+
+    // Earlier occurrences of a recurring chore (same household, title, rule and creator), latest first,
+    // that head no series; used to move a series back when its head task is deleted
+    @Query("SELECT t.id FROM Task t " +
+           "WHERE t.household.id = :householdId AND t.title = :title " +
+           "AND t.recurrenceRule = :rule AND t.createdBy.id = :createdById " +
+           "AND t.id <> :taskId AND t.dueDate < :dueDate " +
+           "AND NOT EXISTS (SELECT 1 FROM TaskRecurrence r WHERE r.headTaskId = t.id) " +
+           "ORDER BY t.dueDate DESC, t.id DESC")
+    List<Long> findPreviousOccurrenceIds(
+            @Param("householdId") Long householdId,
+            @Param("title") String title,
+            @Param("rule") Task.RecurrenceRule rule,
+            @Param("createdById") Long createdById,
+            @Param("taskId") Long taskId,
+            @Param("dueDate") LocalDateTime dueDate,
+            Pageable pageable);
+
     // Find tasks by household ID with status filtering
     List<Task> findByHouseholdIdAndStatus(Long householdId, Task.TaskStatus status);
 
@@ -26,9 +109,36 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
            "WHERE t.id = :taskId")
     Optional<Task> findByIdWithDetails(@Param("taskId") Long taskId);
 
+    // Move a task to a new status only if it is currently in one of the expected statuses.
+    // Returns 0 when a concurrent request already changed it.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = :newStatus, t.updatedAt = :now " +
+           "WHERE t.id = :taskId AND t.status IN :expectedStatuses")
+    int updateStatusIfIn(@Param("taskId") Long taskId,
+                         @Param("newStatus") Task.TaskStatus newStatus,
+                         @Param("expectedStatuses") Collection<Task.TaskStatus> expectedStatuses,
+                         @Param("now") LocalDateTime now);
+
+    // Re-stamp rows written earlier in a long transaction just before it commits, so the delta
+    // feed's settle window only has to cover the commit rather than the whole transaction
+    @Modifying
+    @Query("UPDATE Task t SET t.updatedAt = :now WHERE t.id IN :taskIds")
+    int touchUpdatedAt(@Param("taskIds") Collection<Long> taskIds, @Param("now") LocalDateTime now);
+
+    // Lock the task row. Toggles take the same lock in updateStatusIfIn, so a delete and a toggle
+    // of one task run one after the other and completion XP is never taken back from a stale read.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id = :taskId")
+    Optional<Task> findByIdForUpdate(@Param("taskId") Long taskId);
+
     // Find all tasks created by a specific user
     List<Task> findByCreatedById(Long userId);
 
     // Count tasks for a household
     long countByHouseholdId(Long householdId);
+
+    // Bulk delete a task without loading its assignment collection for cascade
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.id = :taskId")
+    int deleteByIdBulk(@Param("taskId") Long taskId);
 }
@@ -0,0 +1,15 @@
+package com.cohabit.repository;
+
+import com.cohabit.model.Task;
+
+import java.util.List;
+
+/**
+ * JDBC batch operations for tasks.
+ * Task uses IDENTITY ids, so Hibernate cannot batch its inserts.
+ */
+public interface TaskRepositoryCustom {
+
+    // Insert tasks as a single JDBC batch and return their generated ids in input order
+    List<Long> batchInsert(List<Task> tasks);
+}
@@ -0,0 +1,74 @@
+package com.cohabit.repository;
+
+import com.cohabit.model.Task;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO tasks (household_id, title, description, difficulty, xp_points, status, due_date, " +
+            "recurrence_rule, is_free_for_all, rotate_assignments, estimated_time, created_by_user_id, " +
+            "created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> batchInsert(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Task task : tasks) {
+                    ps.setLong(1, task.getHousehold().getId());
+                    ps.setString(2, task.getTitle());
+                    ps.setString(3, task.getDescription());
+                    ps.setString(4, task.getDifficulty());
+                    ps.setInt(5, task.getXpPoints());
+                    ps.setString(6, task.getStatus().name());
+                    if (task.getDueDate() != null) {
+                        ps.setTimestamp(7, Timestamp.valueOf(task.getDueDate()));
+                    } else {
+                        ps.setNull(7, Types.TIMESTAMP);
+                    }
+                    ps.setString(8, task.getRecurrenceRule().name());
+                    ps.setBoolean(9, Boolean.TRUE.equals(task.getIsFreeForAll()));
+                    ps.setBoolean(10, Boolean.TRUE.equals(task.getRotateAssignments()));
+                    ps.setString(11, task.getEstimatedTime());
+                    ps.setLong(12, task.getCreatedBy().getId());
+                    ps.setTimestamp(13, now);
+                    ps.setTimestamp(14, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> ids = new ArrayList<>(tasks.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                if (ids.size() != tasks.size()) {
+                    throw new IllegalStateException(
+                            "Expected " + tasks.size() + " generated task ids but got " + ids.size());
+                }
+                return ids;
+            }
+        });
+    }
+}
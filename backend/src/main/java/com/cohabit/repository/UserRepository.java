@@ -2,12 +2,87 @@ package com.cohabit.repository;
 
 import com.cohabit.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    // Runs in its own transaction so callers can hash the password before opening one
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :passwordHash WHERE u.id = :userId")
+    int updatePasswordHash(@Param("userId") Long userId, @Param("passwordHash") String passwordHash);
+
+    // Atomically add (or subtract) XP and recompute the level in the same statement.
+    // MySQL applies single-table SET clauses left to right, so level sees the new total_xp.
+    // Level formula matches User.updateLevel(): floor(sqrt(totalXp / 100)) + 1, minimum 1.
+    @Modifying
+    @Query(value = "UPDATE users SET total_xp = COALESCE(total_xp, 0) + :delta, " +
+                   "level = CASE WHEN total_xp < 0 THEN 1 ELSE FLOOR(SQRT(total_xp / 100)) + 1 END " +
+                   "WHERE id = :userId", nativeQuery = true)
+    int addXp(@Param("userId") Long userId, @Param("delta") int delta);
+
+    // Take back all XP awarded for one task's completions, one aggregated UPDATE for every completer.
+    // Multi-table SET order is not guaranteed in MySQL, so levels are refreshed separately below.
+    @Modifying
+    @Query(value = "UPDATE users u " +
+                   "JOIN (SELECT completed_by_user_id, SUM(xp_awarded) AS xp " +
+                   "      FROM task_completions " +
+                   "      WHERE task_id = :taskId AND xp_awarded IS NOT NULL " +
+                   "      GROUP BY completed_by_user_id) c ON c.completed_by_user_id = u.id " +
+                   "SET u.total_xp = COALESCE(u.total_xp, 0) - c.xp", nativeQuery = true)
+    int removeCompletionXpForTask(@Param("taskId") Long taskId);
+
+    // Recompute the level of everyone who completed the task (same formula as addXp)
+    @Modifying
+    @Query(value = "UPDATE users SET " +
+                   "level = CASE WHEN total_xp < 0 THEN 1 ELSE FLOOR(SQRT(total_xp / 100)) + 1 END " +
+                   "WHERE id IN (SELECT completed_by_user_id FROM task_completions WHERE task_id = :taskId)",
+           nativeQuery = true)
+    int refreshLevelsForTaskCompleters(@Param("taskId") Long taskId);
+
+    // Current XP and level of one user, read after a change in the same transaction
+    @Query(value = "SELECT COALESCE(total_xp, 0) AS totalXp, COALESCE(level, 1) AS level FROM users WHERE id = :userId",
+           nativeQuery = true)
+    Optional<XpStanding> findXpStanding(@Param("userId") Long userId);
+
+    interface XpStanding {
+        Integer getTotalXp();
+        Integer getLevel();
+    }
+
+    // Highest-XP users with their household, walking idx_total_xp from the top
+    @Query(value = "SELECT u.id AS userId, u.display_name AS displayName, u.username AS username, " +
+                   "COALESCE(u.total_xp, 0) AS totalXp, COALESCE(u.level, 1) AS level, m.household_id AS householdId " +
+                   "FROM users u LEFT JOIN members m ON m.user_id = u.id " +
+                   "ORDER BY u.total_xp DESC, u.id ASC LIMIT :limit", nativeQuery = true)
+    List<GlobalStanding> findGlobalTop(@Param("limit") int limit);
+
+    interface GlobalStanding {
+        Long getUserId();
+        String getDisplayName();
+        String getUsername();
+        Integer getTotalXp();
+        Integer getLevel();
+        Long getHouseholdId();
+    }
+
+    // Number of users per XP bucket of the given width, an index-only scan of idx_total_xp
+    @Query(value = "SELECT FLOOR(COALESCE(total_xp, 0) / :width) AS bucket, COUNT(*) AS users " +
+                   "FROM users GROUP BY bucket", nativeQuery = true)
+    List<XpBucket> countByXpBucket(@Param("width") int width);
+
+    interface XpBucket {
+        Long getBucket();
+        Long getUsers();
+    }
 }
@@ -0,0 +1,169 @@
+package com.cohabit.repository;
+
+import com.cohabit.model.UserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    // Ranked leaderboard for a household: one range scan of idx_household_leaderboard plus user lookups by id
+    @Query(value = "SELECT s.user_id AS userId, u.display_name AS displayName, u.username AS username, " +
+                   "s.total_xp AS totalXp, u.level AS level, s.tasks_completed_total AS tasksCompleted " +
+                   "FROM user_stats s JOIN users u ON u.id = s.user_id " +
+                   "WHERE s.household_id = :householdId " +
+                   "ORDER BY s.total_xp DESC, s.user_id ASC", nativeQuery = true)
+    List<LeaderboardRow> findLeaderboard(@Param("householdId") Long householdId);
+
+    interface LeaderboardRow {
+        Long getUserId();
+        String getDisplayName();
+        String getUsername();
+        Integer getTotalXp();
+        Integer getLevel();
+        Integer getTasksCompleted();
+    }
+
+    // Standings only (used to build the in-memory ranking)
+    @Query(value = "SELECT s.user_id AS userId, s.total_xp AS totalXp, s.tasks_completed_total AS tasksCompleted, " +
+                   "s.revision AS revision FROM user_stats s WHERE s.household_id = :householdId", nativeQuery = true)
+    List<Standing> findStandings(@Param("householdId") Long householdId);
+
+    // One member's standing; read inside a writing transaction it includes that transaction's change
+    @Query(value = "SELECT s.user_id AS userId, s.total_xp AS totalXp, s.tasks_completed_total AS tasksCompleted, " +
+                   "s.revision AS revision FROM user_stats s " +
+                   "WHERE s.user_id = :userId AND s.household_id = :householdId", nativeQuery = true)
+    Optional<Standing> findStanding(@Param("userId") Long userId, @Param("householdId") Long householdId);
+
+    interface Standing {
+        Long getUserId();
+        Integer getTotalXp();
+        Integer getTasksCompleted();
+        Long getRevision();
+    }
+
+    // Content checksum of each household's rows, ids and timestamps left out. Locks the rows,
+    // so a reconciling transaction can compare it before and after rebuilding
+    @Query(value = "SELECT household_id AS householdId, CONCAT(COUNT(*), ':', BIT_XOR(CRC32(CONCAT_WS(',', " +
+                   "user_id, tasks_completed_total, tasks_completed_this_week, completion_rate, total_xp, " +
+                   "weekly_xp, week_start_date, is_top_performer)))) AS checksum " +
+                   "FROM user_stats WHERE household_id IN (:householdIds) GROUP BY household_id " +
+                   "FOR UPDATE", nativeQuery = true)
+    List<HouseholdChecksum> lockChecksums(@Param("householdIds") Collection<Long> householdIds);
+
+    interface HouseholdChecksum {
+        Long getHouseholdId();
+        String getChecksum();
+    }
+
+    // Count one completion. Weekly counters restart when the stored week is not the current one;
+    // week_start_date is assigned last because MySQL applies these assignments left to right.
+    // Every write that moves a standing bumps revision, which orders them for the in-memory ranking.
+    @Modifying
+    @Query(value = "INSERT INTO user_stats (user_id, household_id, tasks_completed_total, tasks_completed_this_week, " +
+                   "total_xp, weekly_xp, week_start_date) " +
+                   "VALUES (:userId, :householdId, 1, 1, :xp, :xp, :weekStart) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "revision = revision + 1, " +
+                   "tasks_completed_total = tasks_completed_total + 1, " +
+                   "total_xp = total_xp + :xp, " +
+                   "tasks_completed_this_week = IF(week_start_date <=> :weekStart, tasks_completed_this_week + 1, 1), " +
+                   "weekly_xp = IF(week_start_date <=> :weekStart, weekly_xp + :xp, :xp), " +
+                   "week_start_date = :weekStart", nativeQuery = true)
+    int recordCompletion(@Param("userId") Long userId,
+                         @Param("householdId") Long householdId,
+                         @Param("xp") int xp,
+                         @Param("weekStart") LocalDate weekStart);
+
+    // Take back one completion; weekly counters only if it was made in the week they hold
+    @Modifying
+    @Query(value = "UPDATE user_stats SET " +
+                   "revision = revision + 1, " +
+                   "tasks_completed_total = GREATEST(tasks_completed_total - 1, 0), " +
+                   "total_xp = GREATEST(total_xp - :xp, 0), " +
+                   "tasks_completed_this_week = IF(week_start_date <=> :completionWeek, " +
+                   "    GREATEST(tasks_completed_this_week - 1, 0), tasks_completed_this_week), " +
+                   "weekly_xp = IF(week_start_date <=> :completionWeek, GREATEST(weekly_xp - :xp, 0), weekly_xp) " +
+                   "WHERE user_id = :userId AND household_id = :householdId", nativeQuery = true)
+    int reverseCompletion(@Param("userId") Long userId,
+                          @Param("householdId") Long householdId,
+                          @Param("xp") int xp,
+                          @Param("completionWeek") LocalDate completionWeek);
+
+    // Take back every completion of a task, aggregated per completer. Run before the completions are deleted.
+    @Modifying
+    @Query(value = "UPDATE user_stats s JOIN (" +
+                   "    SELECT completed_by_user_id AS user_id, COUNT(*) AS completed, " +
+                   "           COALESCE(SUM(xp_awarded), 0) AS xp, " +
+                   "           SUM(completed_at >= :weekStart) AS completed_week, " +
+                   "           COALESCE(SUM(IF(completed_at >= :weekStart, xp_awarded, 0)), 0) AS xp_week " +
+                   "    FROM task_completions WHERE task_id = :taskId GROUP BY completed_by_user_id" +
+                   ") c ON c.user_id = s.user_id " +
+                   "SET s.revision = s.revision + 1, " +
+                   "    s.tasks_completed_total = GREATEST(s.tasks_completed_total - c.completed, 0), " +
+                   "    s.total_xp = GREATEST(s.total_xp - c.xp, 0), " +
+                   "    s.tasks_completed_this_week = IF(s.week_start_date <=> :weekStart, " +
+                   "        GREATEST(s.tasks_completed_this_week - c.completed_week, 0), s.tasks_completed_this_week), " +
+                   "    s.weekly_xp = IF(s.week_start_date <=> :weekStart, " +
+                   "        GREATEST(s.weekly_xp - c.xp_week, 0), s.weekly_xp) " +
+                   "WHERE s.household_id = :householdId", nativeQuery = true)
+    int removeTaskCompletions(@Param("householdId") Long householdId,
+                              @Param("taskId") Long taskId,
+                              @Param("weekStart") LocalDate weekStart);
+
+    // Rebuild the rows of the given households' current members from task_completions.
+    // Completion rate and top performer are only computed here, not by the incremental updates.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO user_stats (user_id, household_id, tasks_completed_total, tasks_completed_this_week, " +
+                   "completion_rate, total_xp, weekly_xp, week_start_date, is_top_performer) " +
+                   "SELECT a.user_id, a.household_id, a.completed, a.completed_week, " +
+                   "       IF(SUM(a.completed) OVER w = 0, 0, ROUND(100 * a.completed / SUM(a.completed) OVER w, 2)), " +
+                   "       a.xp, a.xp_week, :weekStart, a.xp_week > 0 AND a.xp_week = MAX(a.xp_week) OVER w " +
+                   "FROM (" +
+                   "    SELECT m.user_id, m.household_id, COUNT(tc.id) AS completed, " +
+                   "           COALESCE(SUM(tc.completed_at >= :weekStart), 0) AS completed_week, " +
+                   "           COALESCE(SUM(tc.xp_awarded), 0) AS xp, " +
+                   "           COALESCE(SUM(IF(tc.completed_at >= :weekStart, tc.xp_awarded, 0)), 0) AS xp_week " +
+                   "    FROM members m " +
+                   "    LEFT JOIN (task_completions tc JOIN tasks t ON t.id = tc.task_id) " +
+                   "        ON t.household_id = m.household_id AND tc.completed_by_user_id = m.user_id " +
+                   "    WHERE m.household_id IN (:householdIds) " +
+                   "    GROUP BY m.user_id, m.household_id" +
+                   ") a " +
+                   "WINDOW w AS (PARTITION BY a.household_id) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "revision = IF(total_xp <=> VALUES(total_xp) " +
+                   "    AND tasks_completed_total <=> VALUES(tasks_completed_total), revision, revision + 1), " +
+                   "tasks_completed_total = VALUES(tasks_completed_total), " +
+                   "tasks_completed_this_week = VALUES(tasks_completed_this_week), " +
+                   "completion_rate = VALUES(completion_rate), " +
+                   "total_xp = VALUES(total_xp), " +
+                   "weekly_xp = VALUES(weekly_xp), " +
+                   "week_start_date = VALUES(week_start_date), " +
+                   "is_top_performer = VALUES(is_top_performer)", nativeQuery = true)
+    int rebuildForHouseholds(@Param("householdIds") Collection<Long> householdIds,
+                             @Param("weekStart") LocalDate weekStart);
+
+    // Rows left behind by members who are no longer in the household
+    @Modifying
+    @Query(value = "DELETE s FROM user_stats s LEFT JOIN members m " +
+                   "ON m.user_id = s.user_id AND m.household_id = s.household_id " +
+                   "WHERE s.household_id IN (:householdIds) AND m.id IS NULL", nativeQuery = true)
+    int deleteNonMembers(@Param("householdIds") Collection<Long> householdIds);
+
+    @Modifying
+    @Query("DELETE FROM UserStats s WHERE s.userId = :userId AND s.householdId = :householdId")
+    int deleteByUserIdAndHouseholdId(@Param("userId") Long userId, @Param("householdId") Long householdId);
+
+    // Next page of household ids for the reconciliation job, by primary key
+    @Query(value = "SELECT id FROM households WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findHouseholdIdsAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+}
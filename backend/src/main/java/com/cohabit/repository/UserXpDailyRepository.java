@@ -0,0 +1,86 @@
+package com.cohabit.repository;
+
+import com.cohabit.model.UserXpDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserXpDailyRepository extends JpaRepository<UserXpDaily, Long> {
+
+    // Members ranked by XP earned on or after :fromDay, summed from at most one bucket per member per day.
+    // Members with nothing in the window are included with zero.
+    @Query(value = "SELECT m.user_id AS userId, u.display_name AS displayName, u.username AS username, " +
+                   "u.level AS level, COALESCE(SUM(b.xp), 0) AS totalXp, " +
+                   "COALESCE(SUM(b.completions), 0) AS tasksCompleted " +
+                   "FROM members m JOIN users u ON u.id = m.user_id " +
+                   "LEFT JOIN user_xp_daily b ON b.household_id = m.household_id " +
+                   "    AND b.user_id = m.user_id AND b.day >= :fromDay " +
+                   "WHERE m.household_id = :householdId " +
+                   "GROUP BY m.user_id, u.display_name, u.username, u.level " +
+                   "ORDER BY totalXp DESC, m.user_id ASC " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<UserStatsRepository.LeaderboardRow> findWindowLeaderboard(@Param("householdId") Long householdId,
+                                                                   @Param("fromDay") LocalDate fromDay,
+                                                                   @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_xp_daily (household_id, user_id, day, xp, completions) " +
+                   "VALUES (:householdId, :userId, :day, :xp, 1) " +
+                   "ON DUPLICATE KEY UPDATE xp = xp + :xp, completions = completions + 1", nativeQuery = true)
+    int recordCompletion(@Param("householdId") Long householdId,
+                         @Param("userId") Long userId,
+                         @Param("day") LocalDate day,
+                         @Param("xp") int xp);
+
+    @Modifying
+    @Query(value = "UPDATE user_xp_daily SET xp = GREATEST(xp - :xp, 0), completions = GREATEST(completions - 1, 0) " +
+                   "WHERE household_id = :householdId AND user_id = :userId AND day = :day", nativeQuery = true)
+    int reverseCompletion(@Param("householdId") Long householdId,
+                          @Param("userId") Long userId,
+                          @Param("day") LocalDate day,
+                          @Param("xp") int xp);
+
+    // Take back every completion of a task from the buckets of the days they were made. Run before the completions are deleted.
+    @Modifying
+    @Query(value = "UPDATE user_xp_daily b JOIN (" +
+                   "    SELECT completed_by_user_id AS user_id, DATE(completed_at) AS day, COUNT(*) AS completed, " +
+                   "           COALESCE(SUM(xp_awarded), 0) AS xp " +
+                   "    FROM task_completions WHERE task_id = :taskId GROUP BY completed_by_user_id, DATE(completed_at)" +
+                   ") c ON c.user_id = b.user_id AND c.day = b.day " +
+                   "SET b.xp = GREATEST(b.xp - c.xp, 0), b.completions = GREATEST(b.completions - c.completed, 0) " +
+                   "WHERE b.household_id = :householdId", nativeQuery = true)
+    int removeTaskCompletions(@Param("householdId") Long householdId, @Param("taskId") Long taskId);
+
+    // Same as UserStatsRepository.lockChecksums, over the buckets from fromDay on
+    @Query(value = "SELECT household_id AS householdId, CONCAT(COUNT(*), ':', BIT_XOR(CRC32(CONCAT_WS(',', " +
+                   "user_id, day, xp, completions)))) AS checksum " +
+                   "FROM user_xp_daily WHERE household_id IN (:householdIds) AND day >= :fromDay " +
+                   "GROUP BY household_id FOR UPDATE", nativeQuery = true)
+    List<UserStatsRepository.HouseholdChecksum> lockChecksumsSince(@Param("householdIds") Collection<Long> householdIds,
+                                                                   @Param("fromDay") LocalDate fromDay);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_xp_daily WHERE household_id IN (:householdIds) AND day >= :fromDay", nativeQuery = true)
+    int deleteForHouseholdsSince(@Param("householdIds") Collection<Long> householdIds, @Param("fromDay") LocalDate fromDay);
+
+    // Rebuild the retained buckets of the given households from task_completions
+    @Modifying
+    @Query(value = "INSERT INTO user_xp_daily (household_id, user_id, day, xp, completions) " +
+                   "SELECT t.household_id, tc.completed_by_user_id, DATE(tc.completed_at), " +
+                   "       COALESCE(SUM(tc.xp_awarded), 0), COUNT(*) " +
+                   "FROM task_completions tc JOIN tasks t ON t.id = tc.task_id " +
+                   "WHERE t.household_id IN (:householdIds) AND tc.completed_at >= :fromDay " +
+                   "GROUP BY t.household_id, tc.completed_by_user_id, DATE(tc.completed_at)", nativeQuery = true)
+    int rebuildForHouseholdsSince(@Param("householdIds") Collection<Long> householdIds, @Param("fromDay") LocalDate fromDay);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_xp_daily WHERE day < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDate cutoff, @Param("limit") int limit);
+}
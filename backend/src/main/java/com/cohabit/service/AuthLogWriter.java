@@ -0,0 +1,212 @@
+package com.cohabit.service;
+
+import com.cohabit.model.AuthLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind pipeline for auth_log rows.
+ * Events are queued in memory and flushed by a background writer in JDBC batches,
+ * either when a batch fills up or when the flush interval elapses.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuthLogWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO auth_log (user_id, attempt_type, timestamp) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth-log.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${auth-log.batch-size:500}")
+    private int batchSize;
+
+    @Value("${auth-log.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${auth-log.overflow-policy:SYNC}")
+    private OverflowPolicy overflowPolicy;
+
+    private BlockingQueue<AuthLogEvent> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private Timer flushTimer;
+    private Counter writtenCounter;
+    private Counter droppedCounter;
+    private Counter syncFallbackCounter;
+
+    /**
+     * What to do when the queue is full
+     */
+    public enum OverflowPolicy {
+        BLOCK,       // wait for the writer to free a slot
+        DROP_OLDEST, // discard the oldest queued event
+        SYNC         // write this event on the caller's thread
+    }
+
+    public record AuthLogEvent(Long userId, AuthLog.AttemptType attemptType, LocalDateTime timestamp) {
+    }
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        meterRegistry.gauge("authlog.queue.depth", queue, BlockingQueue::size);
+        flushTimer = meterRegistry.timer("authlog.flush.latency");
+        writtenCounter = meterRegistry.counter("authlog.events.written");
+        droppedCounter = meterRegistry.counter("authlog.events.dropped");
+        syncFallbackCounter = meterRegistry.counter("authlog.events.sync_fallback");
+
+        running = true;
+        writerThread = new Thread(this::drainLoop, "AuthLogWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("AuthLogWriter started (capacity {}, batch {}, interval {}ms, overflow {})",
+                queueCapacity, batchSize, flushIntervalMs, overflowPolicy);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Flush whatever the writer did not get to
+        List<AuthLogEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+        log.info("AuthLogWriter shut down");
+    }
+
+    /**
+     * Record an auth attempt. When called inside a transaction the event is only
+     * queued once it commits, so the row never references a rolled-back user.
+     * Failed logins are kept even on rollback since the user row already exists.
+     */
+    public void record(Long userId, AuthLog.AttemptType attemptType) {
+        AuthLogEvent event = new AuthLogEvent(userId, attemptType, LocalDateTime.now());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(event);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED || attemptType == AuthLog.AttemptType.FAILED_LOGIN) {
+                    enqueue(event);
+                }
+            }
+        });
+    }
+
+    private void enqueue(AuthLogEvent event) {
+        if (queue.offer(event)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedCounter.increment();
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(event)) {
+                    if (queue.poll() != null) {
+                        droppedCounter.increment();
+                    }
+                }
+            }
+            case SYNC -> {
+                syncFallbackCounter.increment();
+                flush(List.of(event));
+            }
+        }
+    }
+
+    private void drainLoop() {
+        List<AuthLogEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AuthLogEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Keep collecting until the batch is full or the interval runs out
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    AuthLogEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Shutdown requested; shutdown() flushes what is still queued
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void flush(List<AuthLogEvent> events) {
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+                ps.setLong(1, event.userId());
+                ps.setString(2, event.attemptType().name());
+                ps.setTimestamp(3, Timestamp.valueOf(event.timestamp()));
+            }));
+            writtenCounter.increment(events.size());
+        } catch (Exception e) {
+            droppedCounter.increment(events.size());
+            log.error("Failed to write {} auth log events", events.size(), e);
+        }
+    }
+}
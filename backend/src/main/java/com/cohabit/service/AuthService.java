@@ -7,7 +7,6 @@ import com.cohabit.exception.InvalidCredentialsException;
 import com.cohabit.exception.UserNotFoundException;
 import com.cohabit.model.AuthLog;
 import com.cohabit.model.User;
-import com.cohabit.repository.AuthLogRepository;
 import com.cohabit.util.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,9 +29,9 @@ public class AuthService {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private AuthLogRepository authLogRepository;
+    private AuthLogWriter authLogWriter;
 
-    @Transactional
+    // Not @Transactional: createUser hashes the password before its insert transaction opens
     public AuthResponse register(RegisterRequest request, HttpServletRequest httpRequest) {
         User user = new User();
         user.setUsername(request.getUsername());
@@ -50,7 +49,8 @@ public class AuthService {
         return new AuthResponse(token, savedUser.getId(), savedUser.getUsername(), savedUser.getDisplayName());
     }
 
-    @Transactional
+    // Not @Transactional: the user lookup commits before BCrypt runs, and auth log
+    // events are queued directly instead of waiting on a commit
     public AuthResponse login(LoginRequest request, HttpServletRequest httpRequest) {
         Optional<User> userOpt = userService.findByUsername(request.getUsername());
 
@@ -79,9 +79,7 @@ public class AuthService {
     }
 
     private void logAuthAttempt(User user, AuthLog.AttemptType attemptType) {
-        AuthLog log = new AuthLog();
-        log.setUser(user);
-        log.setAttemptType(attemptType);
-        authLogRepository.save(log);
+        // Written behind in batches so the insert stays off the login path
+        authLogWriter.record(user.getId(), attemptType);
     }
 }
\ No newline at end of file
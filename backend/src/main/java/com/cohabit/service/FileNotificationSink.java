@@ -0,0 +1,43 @@
+package com.cohabit.service;
+
+import com.cohabit.model.Notification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Local stand-in sink: appends each batch to a file as JSON lines
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.sink", havingValue = "file")
+@RequiredArgsConstructor
+public class FileNotificationSink implements NotificationSink {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${notifications.sink.file-path:notifications.jsonl}")
+    private String filePath;
+
+    @Override
+    public synchronized Set<Long> deliver(List<Notification> batch) throws Exception {
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(filePath), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Notification n : batch) {
+                writer.write(objectMapper.writeValueAsString(n));
+                writer.newLine();
+            }
+        }
+        return batch.stream().map(Notification::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,368 @@
+package com.cohabit.service;
+
+import com.cohabit.dto.GlobalLeaderboardResponse;
+import com.cohabit.dto.LeaderboardResponse;
+import com.cohabit.exception.UserNotFoundException;
+import com.cohabit.model.User;
+import com.cohabit.repository.UserRepository;
+import com.cohabit.util.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Leaderboard of every user by total XP, across households, served from memory.
+ *
+ * Users are split into shards by household id. Each shard keeps only its own top K, updated
+ * from XP changes after commit, and a read merges the shards into the global top K. The merged
+ * list is cached for snapshot-interval-ms, so reads cost a sublist copy at any request rate.
+ *
+ * Shards only see users whose XP changes, so a user falling in the ranking can leave a gap a
+ * user outside the shard should fill. A periodic rebuild from idx_total_xp bounds that staleness
+ * to refresh-interval-ms. Users outside the top K get a rank estimated from an XP histogram,
+ * which is refreshed less often because it scans the whole index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GlobalLeaderboardService {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${global-leaderboard.size:100}")
+    private int size;
+
+    @Value("${global-leaderboard.shards:16}")
+    private int shardCount;
+
+    @Value("${global-leaderboard.snapshot-interval-ms:1000}")
+    private long snapshotIntervalMs;
+
+    @Value("${global-leaderboard.histogram-bucket-xp:50}")
+    private int bucketWidth;
+
+    private record Standing(Long userId, Long householdId, String displayName, String username, int xp, int level) {
+    }
+
+    // Highest XP first, then lowest user id
+    private static final Comparator<Standing> RANK_ORDER = Comparator
+            .comparingInt(Standing::xp).reversed()
+            .thenComparing(Standing::userId);
+
+    private static final class Shard {
+        final TreeSet<Standing> top = new TreeSet<>(RANK_ORDER);
+        final Map<Long, Standing> byUser = new HashMap<>();
+    }
+
+    private record Snapshot(List<Standing> top, Map<Long, Integer> rankByUser, LocalDateTime asOf) {
+    }
+
+    private record Histogram(NavigableMap<Long, Long> usersByBucket) {
+    }
+
+    // Updates share the read lock; a rebuild takes the write lock only to replay and swap
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Shard[] shards;
+    private final Map<Long, Integer> shardByUser = new ConcurrentHashMap<>();
+
+    // Updates that arrive while a rebuild reads the database, replayed onto the rebuilt shards
+    private volatile Queue<Standing> updatesDuringRebuild;
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final Object rebuildMonitor = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot(List.of(), Map.of(), LocalDateTime.now());
+    private volatile long snapshotAtMillis;
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+
+    private volatile Histogram histogram = new Histogram(new TreeMap<>());
+
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    public void init() {
+        shards = newShards();
+        rebuildTimer = meterRegistry.timer("leaderboard.global.rebuild.duration");
+        meterRegistry.gauge("leaderboard.global.tracked", shardByUser, Map::size);
+    }
+
+    /**
+     * The global top (up to limit) and the caller's standing, exact if they are in the top
+     */
+    @Transactional(readOnly = true)
+    public GlobalLeaderboardResponse getGlobalLeaderboard(Long userId, Integer limit) {
+        int maxEntries = limit == null ? size : Math.max(1, Math.min(limit, size));
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+
+        Snapshot current = currentSnapshot();
+        List<Standing> top = current.top().subList(0, Math.min(maxEntries, current.top().size()));
+
+        List<LeaderboardResponse> entries = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            entries.add(toResponse(top.get(i), i + 1));
+        }
+
+        int xp = user.getTotalXp() != null ? user.getTotalXp() : 0;
+        Integer exactRank = current.rankByUser().get(userId);
+        int rank = exactRank != null ? exactRank : estimateRank(xp);
+        LeaderboardResponse me = LeaderboardResponse.builder()
+                .userId(user.getId())
+                .displayName(user.getDisplayName())
+                .username(user.getUsername())
+                .totalXp(xp)
+                .level(user.getLevel() != null ? user.getLevel() : 1)
+                .rank(rank)
+                .build();
+
+        return GlobalLeaderboardResponse.builder()
+                .top(entries)
+                .me(me)
+                .myRankEstimated(exactRank == null)
+                .asOf(current.asOf())
+                .build();
+    }
+
+    /**
+     * Record the user's new XP once the current transaction commits.
+     * Call inside the transaction, after the XP change has been written.
+     */
+    public void onXpChanged(User user, Long householdId) {
+        userRepository.findXpStanding(user.getId()).ifPresent(xp -> {
+            Standing standing = new Standing(user.getId(), householdId, user.getDisplayName(),
+                    user.getUsername(), xp.getTotalXp(), xp.getLevel());
+            TransactionCallbacks.afterCommit(() -> apply(standing));
+        });
+    }
+
+    /**
+     * Rebuild from the database at the next refresh tick, for changes that touch many users at once
+     */
+    public void requestRebuild() {
+        TransactionCallbacks.afterCommit(() -> rebuildRequested.set(true));
+    }
+
+    @Scheduled(fixedDelayString = "${global-leaderboard.check-interval-ms:1000}")
+    public void rebuildIfRequested() {
+        if (rebuildRequested.getAndSet(false)) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${global-leaderboard.refresh-interval-ms:60000}",
+               initialDelayString = "${global-leaderboard.initial-delay-ms:5000}")
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            rebuildTimer.record(this::rebuildFromDatabase);
+        }
+    }
+
+    private void rebuildFromDatabase() {
+        // Step 1: Start recording updates, then read the global top from the index
+        updatesDuringRebuild = new ConcurrentLinkedQueue<>();
+        List<UserRepository.GlobalStanding> rows;
+        try {
+            rows = userRepository.findGlobalTop(size);
+        } catch (RuntimeException e) {
+            updatesDuringRebuild = null;
+            log.error("Global leaderboard rebuild failed", e);
+            return;
+        }
+
+        // Step 2: Spread the rows over fresh shards
+        Shard[] rebuilt = newShards();
+        Map<Long, Integer> rebuiltShardByUser = new HashMap<>();
+        for (UserRepository.GlobalStanding row : rows) {
+            Standing standing = new Standing(row.getUserId(), row.getHouseholdId(), row.getDisplayName(),
+                    row.getUsername(), row.getTotalXp(), row.getLevel());
+            int index = shardFor(standing);
+            rebuilt[index].top.add(standing);
+            rebuilt[index].byUser.put(standing.userId(), standing);
+            rebuiltShardByUser.put(standing.userId(), index);
+        }
+
+        // Step 3: Replay what changed meanwhile (absolute values, so replaying is safe) and swap in
+        swapLock.writeLock().lock();
+        try {
+            shards = rebuilt;
+            shardByUser.clear();
+            shardByUser.putAll(rebuiltShardByUser);
+            for (Standing standing : updatesDuringRebuild) {
+                applyLocked(standing);
+            }
+            updatesDuringRebuild = null;
+            dirty.set(true);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        log.debug("Rebuilt global leaderboard from {} users", rows.size());
+    }
+
+    @Scheduled(fixedDelayString = "${global-leaderboard.histogram-interval-ms:300000}",
+               initialDelayString = "${global-leaderboard.initial-delay-ms:5000}")
+    public void refreshHistogram() {
+        NavigableMap<Long, Long> usersByBucket = new TreeMap<>();
+        for (UserRepository.XpBucket bucket : userRepository.countByXpBucket(bucketWidth)) {
+            usersByBucket.put(bucket.getBucket(), bucket.getUsers());
+        }
+        histogram = new Histogram(usersByBucket);
+    }
+
+    private void apply(Standing standing) {
+        swapLock.readLock().lock();
+        try {
+            Queue<Standing> pending = updatesDuringRebuild;
+            if (pending != null) {
+                pending.add(standing);
+            }
+            applyLocked(standing);
+            dirty.set(true);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // Caller holds swapLock (either mode); each shard is guarded by its own monitor
+    private void applyLocked(Standing standing) {
+        Shard[] current = shards;
+        int index = shardFor(standing);
+
+        // The user moved household since they were last seen: drop them from the old shard
+        Integer previousIndex = shardByUser.get(standing.userId());
+        if (previousIndex != null && previousIndex != index) {
+            Shard previous = current[previousIndex];
+            synchronized (previous) {
+                Standing old = previous.byUser.remove(standing.userId());
+                if (old != null) {
+                    previous.top.remove(old);
+                }
+            }
+        }
+
+        Shard shard = current[index];
+        synchronized (shard) {
+            Standing old = shard.byUser.remove(standing.userId());
+            if (old != null) {
+                shard.top.remove(old);
+            }
+            if (shard.top.size() < size || RANK_ORDER.compare(standing, shard.top.last()) < 0) {
+                shard.top.add(standing);
+                shard.byUser.put(standing.userId(), standing);
+                shardByUser.put(standing.userId(), index);
+                if (shard.top.size() > size) {
+                    Standing evicted = shard.top.pollLast();
+                    shard.byUser.remove(evicted.userId());
+                    shardByUser.remove(evicted.userId(), index);
+                }
+            } else {
+                shardByUser.remove(standing.userId(), index);
+            }
+        }
+    }
+
+    /**
+     * The merged top, re-merged from the shards at most once per snapshot interval
+     */
+    private Snapshot currentSnapshot() {
+        long now = System.currentTimeMillis();
+        if (!dirty.get() || now - snapshotAtMillis < snapshotIntervalMs) {
+            return snapshot;
+        }
+        synchronized (this) {
+            if (dirty.getAndSet(false)) {
+                snapshot = merge();
+                snapshotAtMillis = now;
+            }
+            return snapshot;
+        }
+    }
+
+    // k-way merge of the shards' sorted tops, stopping after size entries
+    private Snapshot merge() {
+        List<Iterator<Standing>> cursors = new ArrayList<>();
+        swapLock.readLock().lock();
+        try {
+            for (Shard shard : shards) {
+                synchronized (shard) {
+                    cursors.add(new ArrayList<>(shard.top).iterator());
+                }
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+
+        PriorityQueue<Map.Entry<Standing, Iterator<Standing>>> heads =
+                new PriorityQueue<>(Map.Entry.comparingByKey(RANK_ORDER));
+        for (Iterator<Standing> cursor : cursors) {
+            if (cursor.hasNext()) {
+                heads.add(Map.entry(cursor.next(), cursor));
+            }
+        }
+
+        List<Standing> top = new ArrayList<>(size);
+        Map<Long, Integer> rankByUser = new HashMap<>();
+        while (!heads.isEmpty() && top.size() < size) {
+            Map.Entry<Standing, Iterator<Standing>> head = heads.poll();
+            top.add(head.getKey());
+            rankByUser.put(head.getKey().userId(), top.size());
+            if (head.getValue().hasNext()) {
+                heads.add(Map.entry(head.getValue().next(), head.getValue()));
+            }
+        }
+        return new Snapshot(Collections.unmodifiableList(top), rankByUser, LocalDateTime.now());
+    }
+
+    /**
+     * 1 + users above this XP: whole buckets above it, plus the share of its own bucket above it
+     */
+    private int estimateRank(int xp) {
+        Histogram current = histogram;
+        long bucket = Math.floorDiv(xp, bucketWidth);
+        long above = 0;
+        for (long users : current.usersByBucket().tailMap(bucket, false).values()) {
+            above += users;
+        }
+        long inBucket = current.usersByBucket().getOrDefault(bucket, 0L);
+        double shareAbove = (double) ((bucket + 1) * bucketWidth - 1 - xp) / bucketWidth;
+        above += Math.round(inBucket * shareAbove);
+        return (int) Math.min(Integer.MAX_VALUE, above + 1);
+    }
+
+    private int shardFor(Standing standing) {
+        // Users outside any household are spread by their own id
+        long key = standing.householdId() != null ? standing.householdId() : -standing.userId();
+        return Math.floorMod(Long.hashCode(key), shardCount);
+    }
+
+    private Shard[] newShards() {
+        Shard[] created = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            created[i] = new Shard();
+        }
+        return created;
+    }
+
+    private LeaderboardResponse toResponse(Standing standing, int rank) {
+        return LeaderboardResponse.builder()
+                .userId(standing.userId())
+                .displayName(standing.displayName())
+                .username(standing.username())
+                .totalXp(standing.xp())
+                .level(standing.level())
+                .rank(rank)
+                .build();
+    }
+}
@@ -0,0 +1,413 @@
+package com.cohabit.service;
+
+import com.cohabit.exception.NotInHouseholdException;
+import com.cohabit.exception.ServiceBusyException;
+import com.cohabit.repository.HouseholdMemberRepository;
+import com.cohabit.util.TransactionCallbacks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans household events out to connected Server-Sent Events streams.
+ *
+ * Connections are async servlet requests, so an idle stream holds no thread. Publishers only
+ * append to each connection's bounded buffer; a small writer pool drains buffers that have
+ * pending events. A connection whose buffer overflows is a slow consumer and is closed, and
+ * the client reconnects and catches up through GET /tasks/changes.
+ *
+ * Only writer threads touch an emitter: SseEmitter.send and complete share the emitter's
+ * monitor, and a send blocks while the client's TCP window is full, so a closed stream is only
+ * flagged and its writer completes it. A watchdog flags writes blocked past write-timeout-ms,
+ * ends their async request through the AsyncContext and adds a writer in place of the stuck
+ * one, so stalled clients never hold the whole pool. Tomcat cannot interrupt a blocking write;
+ * the stuck thread is freed by the connector's own timeout (server.tomcat.connection-timeout).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HouseholdEventBroadcaster {
+
+    private final HouseholdMemberRepository householdMemberRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sse.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${sse.heartbeat-interval-ms:20000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${sse.writer-threads:4}")
+    private int writerThreads;
+
+    @Value("${sse.write-timeout-ms:5000}")
+    private long writeTimeoutMs;
+
+    @Value("${sse.max-stalled-writers:32}")
+    private int maxStalledWriters;
+
+    @Value("${sse.max-connections:50000}")
+    private int maxConnections;
+
+    private final Map<Long, Set<Subscriber>> subscribersByHousehold = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    // Subscribers a writer thread is sending to right now; at most writer-threads of them
+    private final Set<Subscriber> writing = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor writerPool;
+    private int replacementWriters;
+    private ExecutorService janitor;
+    private ScheduledExecutorService heartbeatScheduler;
+    private Set<DataWithMediaType> heartbeat;
+
+    private Counter publishedCounter;
+    private Counter evictedCounter;
+    private Counter writeTimeoutCounter;
+
+    /**
+     * Payload of every event; clients fetch details through the delta feed
+     */
+    public record HouseholdEvent(String type, Long householdId, List<Long> taskIds, Long userId,
+                                 LocalDateTime occurredAt) {
+    }
+
+    private final class Subscriber {
+        final Long householdId;
+        final Long userId;
+        final SseEmitter emitter;
+        final HttpServletRequest request;
+        final BlockingQueue<Set<DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean completed = new AtomicBoolean();
+
+        // Guarded by the subscriber's monitor (never the emitter's)
+        boolean sending;
+        boolean stalled;
+        boolean replaced;
+        long writeStartedNanos;
+
+        Subscriber(Long householdId, Long userId, SseEmitter emitter, HttpServletRequest request) {
+            this.householdId = householdId;
+            this.userId = userId;
+            this.emitter = emitter;
+            this.request = request;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        writerPool = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r);
+            t.setName("SseWriter-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        janitor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "SseJanitor");
+            t.setDaemon(true);
+            return t;
+        });
+
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SseHeartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeat = SseEmitter.event().comment("heartbeat").build();
+        heartbeatScheduler.scheduleAtFixedRate(this::sendHeartbeats,
+                heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+        long watchdogIntervalMs = Math.max(100, Math.min(1000, writeTimeoutMs / 2));
+        heartbeatScheduler.scheduleAtFixedRate(this::abortStalledWrites,
+                watchdogIntervalMs, watchdogIntervalMs, TimeUnit.MILLISECONDS);
+
+        meterRegistry.gauge("sse.connections", connectionCount);
+        publishedCounter = meterRegistry.counter("sse.events.published");
+        evictedCounter = meterRegistry.counter("sse.connections.evicted");
+        writeTimeoutCounter = meterRegistry.counter("sse.writes.timed.out");
+
+        log.info("HouseholdEventBroadcaster started ({} writer threads, buffer {}, heartbeat {}ms, write timeout {}ms)",
+                writerThreads, bufferSize, heartbeatIntervalMs, writeTimeoutMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatScheduler.shutdownNow();
+        subscribersByHousehold.values().forEach(subscribers -> subscribers.forEach(this::close));
+        janitor.shutdownNow();
+        writerPool.shutdownNow();
+        log.info("HouseholdEventBroadcaster shut down");
+    }
+
+    /**
+     * Open an event stream for the user's current household
+     */
+    public SseEmitter subscribe(Long userId, HttpServletRequest request) {
+        Long householdId = householdMemberRepository.findHouseholdVersionByUserId(userId)
+                .map(HouseholdMemberRepository.HouseholdVersion::getHouseholdId)
+                .orElseThrow(() -> new NotInHouseholdException(
+                        "You must be in a household to receive events"));
+
+        if (connectionCount.get() >= maxConnections) {
+            throw new ServiceBusyException("Too many event streams open, please try again");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(householdId, userId, emitter, request);
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+
+        // compute/computeIfPresent are atomic per key, so a set is never dropped while being joined
+        subscribersByHousehold.compute(householdId, (id, subscribers) -> {
+            Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        connectionCount.incrementAndGet();
+
+        // Flush headers right away so the client sees the stream open
+        enqueue(subscriber, SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    /**
+     * Publish an event to every stream of the household. Inside a transaction the event
+     * is sent only after commit, so clients never fetch state that was rolled back.
+     */
+    public void publish(Long householdId, String type, List<Long> taskIds, Long userId) {
+        HouseholdEvent event = new HouseholdEvent(type, householdId, taskIds, userId, LocalDateTime.now());
+
+        TransactionCallbacks.afterCommit(() -> dispatch(event));
+    }
+
+    /**
+     * Close the user's streams for a household they no longer belong to (after commit)
+     */
+    public void disconnect(Long householdId, Long userId) {
+        TransactionCallbacks.afterCommit(() -> {
+            Set<Subscriber> subscribers = subscribersByHousehold.get(householdId);
+            if (subscribers != null) {
+                subscribers.stream()
+                        .filter(s -> s.userId.equals(userId))
+                        .forEach(this::close);
+            }
+        });
+    }
+
+    private void dispatch(HouseholdEvent event) {
+        Set<Subscriber> subscribers = subscribersByHousehold.get(event.householdId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+
+        // Serialize once, share the frame with every connection
+        Set<DataWithMediaType> frame;
+        try {
+            frame = SseEmitter.event()
+                    .name(event.type())
+                    .data(objectMapper.writeValueAsString(event), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize household event {}", event.type(), e);
+            return;
+        }
+
+        publishedCounter.increment();
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, frame);
+        }
+    }
+
+    private void sendHeartbeats() {
+        try {
+            subscribersByHousehold.values().forEach(subscribers ->
+                    subscribers.forEach(subscriber -> enqueue(subscriber, heartbeat)));
+        } catch (Exception e) {
+            log.error("Heartbeat round failed", e);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.buffer.offer(frame)) {
+            // Slow consumer: it would only fall further behind, drop it and let it resync
+            evictedCounter.increment();
+            log.debug("Evicting slow event stream for user {} in household {}",
+                    subscriber.userId, subscriber.householdId);
+            close(subscriber);
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                writerPool.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<DataWithMediaType> frame;
+            while (!subscriber.closed.get() && (frame = subscriber.buffer.poll()) != null) {
+                send(subscriber, frame);
+            }
+        } catch (Exception e) {
+            // Client went away (IOException) or the emitter already completed
+            close(subscriber);
+        }
+
+        try {
+            if (subscriber.closed.get() && subscriber.completed.compareAndSet(false, true)) {
+                subscriber.emitter.complete();
+            }
+        } catch (Exception ignored) {
+            // Already completed by the container or aborted by the watchdog
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // An event or a close may have landed between the last check and releasing the flag
+        if (subscriber.closed.get() ? !subscriber.completed.get() : !subscriber.buffer.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void send(Subscriber subscriber, Set<DataWithMediaType> frame) throws Exception {
+        synchronized (subscriber) {
+            subscriber.sending = true;
+            subscriber.writeStartedNanos = System.nanoTime();
+        }
+        writing.add(subscriber);
+        try {
+            subscriber.emitter.send(frame);
+        } finally {
+            writing.remove(subscriber);
+            synchronized (subscriber) {
+                subscriber.sending = false;
+                if (subscriber.replaced) {
+                    subscriber.replaced = false;
+                    resizeWriterPool(-1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Close connections whose current write has blocked past the deadline. The write itself
+     * cannot be cut short, so the stream's async request is completed on the janitor thread and
+     * the pool gets a replacement writer until the stuck send returns.
+     */
+    private void abortStalledWrites() {
+        try {
+            long now = System.nanoTime();
+            long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+            for (Subscriber subscriber : writing) {
+                boolean stalled;
+                synchronized (subscriber) {
+                    stalled = subscriber.sending && !subscriber.stalled
+                            && now - subscriber.writeStartedNanos > timeoutNanos;
+                    if (stalled) {
+                        subscriber.stalled = true;
+                        subscriber.replaced = resizeWriterPool(1);
+                    }
+                }
+                if (stalled) {
+                    writeTimeoutCounter.increment();
+                    evictedCounter.increment();
+                    log.debug("Write to event stream for user {} in household {} timed out",
+                            subscriber.userId, subscriber.householdId);
+                    close(subscriber);
+                    janitor.execute(() -> abort(subscriber));
+                }
+            }
+        } catch (Exception e) {
+            log.error("Stalled write check failed", e);
+        }
+    }
+
+    // Ends the async request without the emitter's monitor, which the stuck send holds
+    private void abort(Subscriber subscriber) {
+        try {
+            if (subscriber.request.isAsyncStarted()) {
+                subscriber.request.getAsyncContext().complete();
+            }
+        } catch (Exception ignored) {
+            // Already completed by the container
+        }
+    }
+
+    // Grow (or shrink back) the writer pool by one stuck writer; false when the cap is reached
+    private synchronized boolean resizeWriterPool(int delta) {
+        if (delta > 0 && replacementWriters >= maxStalledWriters) {
+            return false;
+        }
+        replacementWriters += delta;
+        int size = writerThreads + replacementWriters;
+        if (delta > 0) {
+            writerPool.setMaximumPoolSize(size);
+            writerPool.setCorePoolSize(size);
+        } else {
+            writerPool.setCorePoolSize(size);
+            writerPool.setMaximumPoolSize(size);
+        }
+        return true;
+    }
+
+    /**
+     * Flag the stream closed and hand it to a writer, which completes the emitter once any
+     * send in progress returns; callers never wait on the emitter's monitor
+     */
+    private void close(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            remove(subscriber);
+            subscriber.buffer.clear();
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        subscribersByHousehold.computeIfPresent(subscriber.householdId, (id, subscribers) -> {
+            if (subscribers.remove(subscriber)) {
+                connectionCount.decrementAndGet();
+            }
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+}
@@ -0,0 +1,151 @@
+package com.cohabit.service;
+
+import com.cohabit.repository.UserStatsRepository;
+import com.cohabit.util.RankedLeaderboard;
+import com.cohabit.util.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory ranking of each active household's members, answering rank, top-K and
+ * around-me queries without sorting.
+ *
+ * A ranking is built from user_stats on the household's first leaderboard read. After a
+ * completion or reversal, the member's user_stats row is read back inside that transaction and
+ * put into the ranking once it commits, so applying a change twice is harmless, and the row's
+ * revision keeps an older standing from overwriting a newer one. Changes that touch many
+ * members (task deletion, membership changes, reconciliation) drop the ranking so the next
+ * read rebuilds it. Rankings of households nobody is looking at are evicted when idle.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HouseholdRankingService {
+
+    private final UserStatsRepository userStatsRepository;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${leaderboard.ranking.idle-timeout-minutes:30}")
+    private long idleTimeoutMinutes;
+
+    private final Map<Long, HouseholdRanking> rankings = new ConcurrentHashMap<>();
+
+    private TransactionTemplate loadTransaction;
+
+    private static final class HouseholdRanking {
+        final RankedLeaderboard board = new RankedLeaderboard();
+        volatile boolean loaded;
+        // Set when the ranking is dropped while a read is loading it; that read loads again
+        volatile boolean stale;
+        volatile long lastAccessNanos = System.nanoTime();
+    }
+
+    @PostConstruct
+    public void init() {
+        // The load snapshot starts after the ranking is registered, so every commit is either
+        // in the snapshot or put into the ranking once the load is done
+        loadTransaction = new TransactionTemplate(transactionManager);
+        loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        loadTransaction.setReadOnly(true);
+
+        meterRegistry.gaugeMapSize("leaderboard.rankings", List.of(), rankings);
+    }
+
+    /**
+     * The household's ranking, built from user_stats if it is not in memory
+     */
+    public RankedLeaderboard ranking(Long householdId) {
+        while (true) {
+            HouseholdRanking ranking = rankings.computeIfAbsent(householdId, id -> new HouseholdRanking());
+            ranking.lastAccessNanos = System.nanoTime();
+            if (!ranking.loaded) {
+                load(householdId, ranking);
+            }
+            if (!ranking.stale) {
+                return ranking.board;
+            }
+            // Changed while loading: discard and build again from the newer data
+            rankings.remove(householdId, ranking);
+        }
+    }
+
+    /**
+     * Record a member's new XP and completion count once the current transaction commits.
+     * Call inside the transaction, after the change has been written.
+     */
+    public void onStatsChanged(Long householdId, Long userId) {
+        userStatsRepository.findStanding(userId, householdId).ifPresent(standing -> {
+            int xp = standing.getTotalXp() != null ? standing.getTotalXp() : 0;
+            int tasksCompleted = standing.getTasksCompleted() != null ? standing.getTasksCompleted() : 0;
+            long revision = standing.getRevision() != null ? standing.getRevision() : 0;
+            TransactionCallbacks.afterCommit(() -> {
+                HouseholdRanking ranking = rankings.get(householdId);
+                if (ranking == null) {
+                    return; // Not built; the next read loads the committed rows
+                }
+                // Waits out a load in progress, whose snapshot may predate this commit. A load
+                // that has not started yet reads a snapshot that already includes it. Callbacks
+                // of two commits can run in either order; the revision keeps the newer standing.
+                synchronized (ranking) {
+                    if (ranking.loaded) {
+                        ranking.board.put(userId, xp, tasksCompleted, revision);
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Drop the household's ranking once the current transaction commits
+     */
+    public void invalidate(Long householdId) {
+        TransactionCallbacks.afterCommit(() -> {
+            HouseholdRanking ranking = rankings.remove(householdId);
+            if (ranking != null) {
+                ranking.stale = true;
+            }
+        });
+    }
+
+    public void invalidateAll(List<Long> householdIds) {
+        householdIds.forEach(this::invalidate);
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.ranking.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long idleCutoff = System.nanoTime() - TimeUnit.MINUTES.toNanos(idleTimeoutMinutes);
+        rankings.entrySet().removeIf(e -> e.getValue().lastAccessNanos < idleCutoff);
+    }
+
+    private void load(Long householdId, HouseholdRanking ranking) {
+        synchronized (ranking) {
+            if (ranking.loaded) {
+                return;
+            }
+            List<UserStatsRepository.Standing> standings = loadTransaction.execute(
+                    status -> userStatsRepository.findStandings(householdId));
+            for (UserStatsRepository.Standing standing : standings) {
+                ranking.board.put(standing.getUserId(),
+                        standing.getTotalXp() != null ? standing.getTotalXp() : 0,
+                        standing.getTasksCompleted() != null ? standing.getTasksCompleted() : 0,
+                        standing.getRevision() != null ? standing.getRevision() : 0);
+            }
+            ranking.loaded = true;
+            log.debug("Built leaderboard ranking for household {} ({} members)", householdId, standings.size());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.cohabit.service;
+
+import com.cohabit.dto.HouseholdResponse;
+import com.cohabit.model.JoinRequest;
+import com.cohabit.repository.HouseholdMemberRepository;
+import com.cohabit.repository.JoinRequestRepository;
+import com.cohabit.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded LRU cache of the viewer-independent parts of GET /household/current.
+ *
+ * HouseholdService invalidates a household after every commit that changes its details,
+ * members or join requests, and UserService after profile changes that alter names shown
+ * in it. A load that overlaps an invalidation is not stored: loaders read a per-household
+ * generation before querying and the put is dropped if it has moved since. Entries also
+ * expire after ttl-seconds, which bounds staleness from changes made on other instances.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HouseholdResponseCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final HouseholdMemberRepository householdMemberRepository;
+    private final JoinRequestRepository joinRequestRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${household.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${household.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    /**
+     * Household details and members with no viewer fields set, plus pending requests
+     * (null until a host has loaded them)
+     */
+    public record Entry(HouseholdResponse household, List<HouseholdResponse.JoinRequestInfo> pendingRequests,
+                        long loadedAtNanos) {
+    }
+
+    private Map<Long, Entry> entries;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private Counter hitCounter;
+    private Counter missCounter;
+    private Counter evictionCounter;
+    private Counter invalidationCounter;
+
+    @PostConstruct
+    public void init() {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictionCounter.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        hitCounter = meterRegistry.counter("household.cache.hits");
+        missCounter = meterRegistry.counter("household.cache.misses");
+        evictionCounter = meterRegistry.counter("household.cache.evictions");
+        invalidationCounter = meterRegistry.counter("household.cache.invalidations");
+        meterRegistry.gauge("household.cache.size", this, HouseholdResponseCache::size);
+    }
+
+    /**
+     * The cached parts, or null on a miss
+     */
+    public Entry get(Long householdId) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(householdId);
+            if (entry != null && System.nanoTime() - entry.loadedAtNanos() > TimeUnit.SECONDS.toNanos(ttlSeconds)) {
+                entries.remove(householdId);
+                evictionCounter.increment();
+                entry = null;
+            }
+        }
+        (entry != null ? hitCounter : missCounter).increment();
+        return entry;
+    }
+
+    /**
+     * Read before loading, and pass to put
+     */
+    public long generation(Long householdId) {
+        return generations.get(stripe(householdId));
+    }
+
+    /**
+     * Store freshly loaded parts, unless the household was invalidated since generation was read
+     */
+    public void put(Long householdId, long generation, Entry entry) {
+        synchronized (entries) {
+            if (generations.get(stripe(householdId)) == generation) {
+                entries.put(householdId, entry);
+            }
+        }
+    }
+
+    /**
+     * The cached household as the given viewer sees it
+     */
+    public HouseholdResponse view(Entry entry, Long viewerId) {
+        boolean isHost = entry.household().getHostId().equals(viewerId);
+        return entry.household().toBuilder()
+                .isHost(isHost)
+                .currentUserRole(isHost ? "OWNER" : "MEMBER")
+                .pendingRequests(isHost ? entry.pendingRequests() : null)
+                .build();
+    }
+
+    /**
+     * Drop the household once the current transaction commits
+     */
+    public void invalidate(Long householdId) {
+        TransactionCallbacks.afterCommit(() -> evict(householdId));
+    }
+
+    /**
+     * Drop every household that shows the user's name: the one they belong to and any they
+     * have a pending request with. Call inside the transaction that changes the profile.
+     */
+    public void invalidateForUser(Long userId) {
+        householdMemberRepository.findHouseholdVersionByUserId(userId)
+                .ifPresent(v -> invalidate(v.getHouseholdId()));
+        joinRequestRepository.findHouseholdIdsByUserIdAndStatus(userId, JoinRequest.RequestStatus.PENDING)
+                .forEach(this::invalidate);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void evict(Long householdId) {
+        synchronized (entries) {
+            generations.incrementAndGet(stripe(householdId));
+            entries.remove(householdId);
+        }
+        invalidationCounter.increment();
+    }
+
+    private static int stripe(Long householdId) {
+        return Math.floorMod(Long.hashCode(householdId), GENERATION_STRIPES);
+    }
+}
@@ -4,17 +4,26 @@ import com.cohabit.dto.*;
 import com.cohabit.exception.*;
 import com.cohabit.model.*;
 import com.cohabit.repository.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,53 +35,80 @@ public class HouseholdService {
     private final HouseholdMemberRepository householdMemberRepository;
     private final JoinRequestRepository joinRequestRepository;
     private final UserRepository userRepository;
+    private final HouseholdVersionService householdVersionService;
+    private final HouseholdEventBroadcaster householdEventBroadcaster;
+    private final UserStatsService userStatsService;
+    private final HouseholdResponseCache householdResponseCache;
+    private final InviteCodeAllocator inviteCodeAllocator;
 
-    private static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final int INVITE_CODE_LENGTH = 6;
-    private final SecureRandom random = new SecureRandom();
 
-    // Thread pool for parallel data fetching
-    private ExecutorService executorService;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${household.fanout.threads:16}")
+    private int fanOutThreads;
+
+    @Value("${household.fanout.queue-capacity:256}")
+    private int fanOutQueueCapacity;
+
+    @Value("${household.fanout.deadline-ms:2000}")
+    private long fanOutDeadlineMs;
+
+    // Bounded pool for loading household parts in parallel; when it is saturated the
+    // caller runs the part itself, inside its own read-only transaction
+    private ThreadPoolExecutor fanOutExecutor;
+
+    private Timer fanOutTimer;
+    private Timer fanOutQueueWaitTimer;
+    private Counter fanOutTimeoutCounter;
+    private Counter fanOutCallerRunsCounter;
 
     @PostConstruct
     public void init() {
-        executorService = Executors.newFixedThreadPool(4, r -> {
-            Thread t = new Thread(r);
-            t.setName("HouseholdService-Worker-" + t.getId());
-            t.setDaemon(true);
-            return t;
-        });
-        log.info("HouseholdService thread pool initialized with 4 threads");
+        AtomicInteger threadCount = new AtomicInteger();
+        fanOutExecutor = new ThreadPoolExecutor(fanOutThreads, fanOutThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fanOutQueueCapacity),
+                r -> {
+                    Thread t = new Thread(r);
+                    t.setName("HouseholdService-Worker-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                (task, executor) -> {
+                    fanOutCallerRunsCounter.increment();
+                    if (!executor.isShutdown()) {
+                        task.run();
+                    }
+                });
+        fanOutExecutor.allowCoreThreadTimeOut(true);
+
+        fanOutTimer = meterRegistry.timer("household.fanout.duration");
+        fanOutQueueWaitTimer = meterRegistry.timer("household.fanout.queue.wait");
+        fanOutTimeoutCounter = meterRegistry.counter("household.fanout.timeouts");
+        fanOutCallerRunsCounter = meterRegistry.counter("household.fanout.caller.runs");
+        meterRegistry.gauge("household.fanout.active", fanOutExecutor, ThreadPoolExecutor::getActiveCount);
+        meterRegistry.gauge("household.fanout.queued", fanOutExecutor, e -> e.getQueue().size());
+
+        log.info("HouseholdService fan-out pool initialized with {} threads, queue capacity {}, deadline {}ms",
+                fanOutThreads, fanOutQueueCapacity, fanOutDeadlineMs);
     }
 
     @PreDestroy
     public void shutdown() {
-        if (executorService != null) {
-            executorService.shutdown();
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdown();
             try {
-                if (!executorService.awaitTermination(5, TimeUnit.SECONDS)) {
-                    executorService.shutdownNow();
+                if (!fanOutExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    fanOutExecutor.shutdownNow();
                 }
             } catch (InterruptedException e) {
-                executorService.shutdownNow();
+                fanOutExecutor.shutdownNow();
                 Thread.currentThread().interrupt();
             }
-            log.info("HouseholdService thread pool shut down");
+            log.info("HouseholdService fan-out pool shut down");
         }
     }
 
-    private String generateInviteCode() {
-        String code;
-        do {
-            StringBuilder sb = new StringBuilder(INVITE_CODE_LENGTH);
-            for (int i = 0; i < INVITE_CODE_LENGTH; i++) {
-                sb.append(ALPHANUMERIC.charAt(random.nextInt(ALPHANUMERIC.length())));
-            }
-            code = sb.toString();
-        } while (householdRepository.existsByInviteCode(code));
-        return code;
-    }
-
     @Transactional
     public HouseholdResponse createHousehold(CreateHouseholdRequest request, Long userId) {
         User user = userRepository.findById(userId)
@@ -87,7 +123,7 @@ public class HouseholdService {
         household.setAddress(request.getAddress());
         household.setDescription(request.getDescription());
         household.setHost(user);
-        household.setInviteCode(generateInviteCode());
+        household.setInviteCode(inviteCodeAllocator.allocate());
 
         Household savedHousehold = householdRepository.save(household);
 
@@ -97,102 +133,148 @@ public class HouseholdService {
         // FIX: Changed HOST to OWNER to match the Entity and Database Enum
         hostMember.setRole(HouseholdMember.MemberRole.OWNER); 
         householdMemberRepository.save(hostMember);
+        userStatsService.onMemberJoined(savedHousehold.getId());
+        householdResponseCache.invalidate(savedHousehold.getId());
 
         return buildHouseholdResponseSequential(savedHousehold, user);
     }
 
-    @Transactional(readOnly = true)
+    // Not @Transactional: the cache generation is taken before the cache is read, and every load
+    // below reads in its own transaction started after that, so an entry built from parts that
+    // overlap a change can never be cached as current
     public HouseholdResponse getCurrentHousehold(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-
-        HouseholdMember membership = householdMemberRepository.findByUser(user)
-                .orElse(null);
-
-        if (membership == null) {
+        // Step 1: Find the user's household without loading any entities
+        Optional<HouseholdMemberRepository.HouseholdVersion> membership =
+                householdMemberRepository.findHouseholdVersionByUserId(userId);
+        if (membership.isEmpty()) {
+            if (!userRepository.existsById(userId)) {
+                throw new UserNotFoundException("User not found");
+            }
             return null;
         }
+        Long householdId = membership.get().getHouseholdId();
+
+        // Step 2: Serve from the cache when it has everything this viewer sees. The generation is
+        // read first: if the household is invalidated after it, a cached part reused below may be
+        // stale, and the put in Step 3 is dropped
+        long generation = householdResponseCache.generation(householdId);
+        HouseholdResponseCache.Entry cached = householdResponseCache.get(householdId);
+        boolean viewerIsHost = cached != null && cached.household().getHostId().equals(userId);
+        if (cached != null && (!viewerIsHost || cached.pendingRequests() != null)) {
+            return householdResponseCache.view(cached, userId);
+        }
 
-        Household household = householdRepository.findByIdWithMembers(membership.getHousehold().getId())
-                .orElseThrow(() -> new HouseholdNotFoundException("Household not found"));
-
-        return buildHouseholdResponseParallel(household, user);
+        // Step 3: Load what is missing and cache it
+        HouseholdResponseCache.Entry loaded = loadHouseholdParts(householdId, userId, cached);
+        householdResponseCache.put(householdId, generation, loaded);
+        return householdResponseCache.view(loaded, userId);
     }
 
-    private HouseholdResponse buildHouseholdResponseParallel(Household household, User currentUser) {
-        // long startTime = System.currentTimeMillis();
-        boolean isHost = household.getHost().getId().equals(currentUser.getId());
-        final Long householdId = household.getId();
-
-        // Note: These run in separate threads without the main transaction. 
-        // This works only because your Repositories use "JOIN FETCH" to load the User eagerly.
-        CompletableFuture<List<HouseholdMember>> membersFuture = CompletableFuture.supplyAsync(() -> {
-            try { Thread.sleep(50); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-            return householdMemberRepository.findByHouseholdIdWithUser(householdId);
-        }, executorService);
-
-        // Create CompletableFuture for fetching pending requests
-        CompletableFuture<List<JoinRequest>> requestsFuture = CompletableFuture.supplyAsync(() -> {
-            List<JoinRequest> requests = joinRequestRepository.findPendingByHouseholdId(householdId, JoinRequest.RequestStatus.PENDING);
-            return requests;
-        }, executorService);
+    /**
+     * Load the parts of a household missing from the cached entry (all of them on a miss; only the
+     * pending requests when a host views an entry cached for members). Household details come first
+     * because they name the host; members and pending requests are then loaded in parallel.
+     * All parts share one deadline, taken when loading starts; each runs in a read-only transaction
+     * whose timeout is what is left of it, so a slow query is aborted in the database rather than
+     * left running. If either parallel part fails or the deadline passes, the other is cancelled.
+     */
+    private HouseholdResponseCache.Entry loadHouseholdParts(Long householdId, Long viewerId,
+                                                           HouseholdResponseCache.Entry cached) {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(fanOutDeadlineMs);
+
+        HouseholdResponse details = cached != null ? cached.household() : readOnlyTransaction(deadlineNanos)
+                .execute(status -> householdRepository.findById(householdId)
+                        .map(this::toHouseholdDetails)
+                        .orElseThrow(() -> new HouseholdNotFoundException("Household not found")));
+        boolean isHost = details.getHostId().equals(viewerId);
+
+        Future<List<HouseholdResponse.MemberInfo>> membersFuture = cached != null ? null
+                : submitReadOnly(deadlineNanos,
+                        () -> toMemberInfos(householdMemberRepository.findByHouseholdIdWithUser(householdId)));
+
+        // Only the host sees pending requests, so nobody else pays for the query
+        Future<List<HouseholdResponse.JoinRequestInfo>> requestsFuture = isHost
+                ? submitReadOnly(deadlineNanos, () -> toJoinRequestInfos(
+                        joinRequestRepository.findPendingByHouseholdId(householdId, JoinRequest.RequestStatus.PENDING)))
+                : null;
 
         try {
-            CompletableFuture<Void> allFutures = CompletableFuture.allOf(membersFuture, requestsFuture);
-            allFutures.get(5, TimeUnit.SECONDS);
-
-            List<HouseholdMember> members = membersFuture.get();
-            List<JoinRequest> pendingRequests = requestsFuture.get();
-
-            List<HouseholdResponse.MemberInfo> memberInfos = members.stream()
-                    .map(m -> HouseholdResponse.MemberInfo.builder()
-                            .userId(m.getUser().getId())
-                            .displayName(m.getUser().getDisplayName())
-                            .username(m.getUser().getUsername())
-                            .role(m.getRole().name())
-                            .joinedAt(m.getJoinedAt())
-                            .build())
-                    .collect(Collectors.toList());
-
-            List<HouseholdResponse.JoinRequestInfo> requestInfos = isHost ? pendingRequests.stream()
-                    .map(jr -> HouseholdResponse.JoinRequestInfo.builder()
-                            .requestId(jr.getId())
-                            .userId(jr.getUser().getId())
-                            .displayName(jr.getUser().getDisplayName())
-                            .username(jr.getUser().getUsername())
-                            .requestedAt(jr.getRequestedAt())
-                            .build())
-                    .collect(Collectors.toList()) : null;
-
-            return HouseholdResponse.builder()
-                    .id(household.getId())
-                    .name(household.getName())
-                    .inviteCode(household.getInviteCode())
-                    .address(household.getAddress())
-                    .description(household.getDescription())
-                    .memberCount(members.size())
-                    .hostId(household.getHost().getId())
-                    .hostDisplayName(household.getHost().getDisplayName())
-                    .currentUserRole(isHost ? "OWNER" : "MEMBER") // Updated string to match Enum concept
-                    .members(memberInfos)
-                    .pendingRequests(requestInfos)
-                    .isHost(isHost)
-                    .createdAt(household.getCreatedAt())
-                    .build();
-
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            log.error("Parallel fetch failed", e);
-            throw new RuntimeException("Failed to fetch household data", e);
+            HouseholdResponse household = details;
+            if (membersFuture != null) {
+                List<HouseholdResponse.MemberInfo> memberInfos = await(membersFuture, deadlineNanos);
+                household = details.toBuilder()
+                        .members(memberInfos)
+                        .memberCount(memberInfos.size())
+                        .build();
+            }
+            List<HouseholdResponse.JoinRequestInfo> requestInfos = requestsFuture != null
+                    ? await(requestsFuture, deadlineNanos)
+                    : null;
+            return new HouseholdResponseCache.Entry(household, requestInfos,
+                    cached != null ? cached.loadedAtNanos() : startNanos);
+        } catch (RuntimeException e) {
+            if (membersFuture != null) {
+                membersFuture.cancel(true);
+            }
+            if (requestsFuture != null) {
+                requestsFuture.cancel(true);
+            }
+            throw e;
+        } finally {
+            fanOutTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
         }
     }
 
-    private HouseholdResponse buildHouseholdResponseSequential(Household household, User currentUser) {
-        List<HouseholdMember> members = householdMemberRepository.findByHouseholdIdWithUser(household.getId());
-        List<JoinRequest> pendingRequests = joinRequestRepository.findPendingByHouseholdId(household.getId(), JoinRequest.RequestStatus.PENDING);
+    // Household fields shared by every viewer; members and viewer fields are filled in later
+    private HouseholdResponse toHouseholdDetails(Household household) {
+        return HouseholdResponse.builder()
+                .id(household.getId())
+                .name(household.getName())
+                .inviteCode(household.getInviteCode())
+                .address(household.getAddress())
+                .description(household.getDescription())
+                .hostId(household.getHost().getId())
+                .hostDisplayName(household.getHost().getDisplayName())
+                .createdAt(household.getCreatedAt())
+                .build();
+    }
 
+    private HouseholdResponse buildHouseholdResponseSequential(Household household, User currentUser) {
         boolean isHost = household.getHost().getId().equals(currentUser.getId());
 
-        List<HouseholdResponse.MemberInfo> memberInfos = members.stream()
+        List<HouseholdResponse.MemberInfo> memberInfos = toMemberInfos(
+                householdMemberRepository.findByHouseholdIdWithUser(household.getId()));
+        List<HouseholdResponse.JoinRequestInfo> requestInfos = isHost
+                ? toJoinRequestInfos(joinRequestRepository.findPendingByHouseholdId(
+                        household.getId(), JoinRequest.RequestStatus.PENDING))
+                : null;
+
+        return buildHouseholdResponse(household, isHost, memberInfos, requestInfos);
+    }
+
+    private HouseholdResponse buildHouseholdResponse(Household household, boolean isHost,
+                                                     List<HouseholdResponse.MemberInfo> memberInfos,
+                                                     List<HouseholdResponse.JoinRequestInfo> requestInfos) {
+        return HouseholdResponse.builder()
+                .id(household.getId())
+                .name(household.getName())
+                .inviteCode(household.getInviteCode())
+                .address(household.getAddress())
+                .description(household.getDescription())
+                .memberCount(memberInfos.size())
+                .hostId(household.getHost().getId())
+                .hostDisplayName(household.getHost().getDisplayName())
+                .currentUserRole(isHost ? "OWNER" : "MEMBER")
+                .members(memberInfos)
+                .pendingRequests(requestInfos)
+                .isHost(isHost)
+                .createdAt(household.getCreatedAt())
+                .build();
+    }
+
+    private List<HouseholdResponse.MemberInfo> toMemberInfos(List<HouseholdMember> members) {
+        return members.stream()
                 .map(m -> HouseholdResponse.MemberInfo.builder()
                         .userId(m.getUser().getId())
                         .displayName(m.getUser().getDisplayName())
@@ -201,8 +283,10 @@ public class HouseholdService {
                         .joinedAt(m.getJoinedAt())
                         .build())
                 .collect(Collectors.toList());
+    }
 
-        List<HouseholdResponse.JoinRequestInfo> requestInfos = isHost ? pendingRequests.stream()
+    private List<HouseholdResponse.JoinRequestInfo> toJoinRequestInfos(List<JoinRequest> requests) {
+        return requests.stream()
                 .map(jr -> HouseholdResponse.JoinRequestInfo.builder()
                         .requestId(jr.getId())
                         .userId(jr.getUser().getId())
@@ -210,23 +294,53 @@ public class HouseholdService {
                         .username(jr.getUser().getUsername())
                         .requestedAt(jr.getRequestedAt())
                         .build())
-                .collect(Collectors.toList()) : null;
+                .collect(Collectors.toList());
+    }
 
-        return HouseholdResponse.builder()
-                .id(household.getId())
-                .name(household.getName())
-                .inviteCode(household.getInviteCode())
-                .address(household.getAddress())
-                .description(household.getDescription())
-                .memberCount(members.size())
-                .hostId(household.getHost().getId())
-                .hostDisplayName(household.getHost().getDisplayName())
-                .currentUserRole(isHost ? "OWNER" : "MEMBER")
-                .members(memberInfos)
-                .pendingRequests(requestInfos)
-                .isHost(isHost)
-                .createdAt(household.getCreatedAt())
-                .build();
+    /**
+     * Run work on the fan-out pool in a read-only transaction that times out at the deadline.
+     * Results are mapped to DTOs inside that transaction, so nothing lazy escapes it.
+     */
+    private <T> Future<T> submitReadOnly(long deadlineNanos, Supplier<T> work) {
+        long submittedAt = System.nanoTime();
+        return fanOutExecutor.submit(() -> {
+            fanOutQueueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            return readOnlyTransaction(deadlineNanos).execute(status -> work.get());
+        });
+    }
+
+    /**
+     * A new read-only transaction that times out at the deadline
+     */
+    private TransactionTemplate readOnlyTransaction(long deadlineNanos) {
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        if (remainingMs <= 0) {
+            fanOutTimeoutCounter.increment();
+            throw new ServiceBusyException("Household is taking too long to load, please try again");
+        }
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readOnly.setReadOnly(true);
+        readOnly.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(remainingMs + 999)));
+        return readOnly;
+    }
+
+    private <T> T await(Future<T> future, long deadlineNanos) {
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            fanOutTimeoutCounter.increment();
+            throw new ServiceBusyException("Household is taking too long to load, please try again");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Household is taking too long to load, please try again");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to fetch household data", e.getCause());
+        }
     }
 
     @Transactional(readOnly = true)
@@ -264,6 +378,9 @@ public class HouseholdService {
         joinRequest.setUser(user);
         joinRequest.setStatus(JoinRequest.RequestStatus.PENDING);
         joinRequestRepository.save(joinRequest);
+        householdVersionService.bump(householdId);
+        householdResponseCache.invalidate(householdId);
+        householdEventBroadcaster.publish(householdId, "join_request.created", List.of(), userId);
     }
 
     @Transactional(readOnly = true)
@@ -316,10 +433,13 @@ public class HouseholdService {
             newMember.setUser(joinRequest.getUser());
             newMember.setRole(HouseholdMember.MemberRole.MEMBER);
             householdMemberRepository.save(newMember);
+            userStatsService.onMemberJoined(household.getId());
 
             joinRequest.setStatus(JoinRequest.RequestStatus.ACCEPTED);
+            householdEventBroadcaster.publish(household.getId(), "member.joined", List.of(), joinRequest.getUser().getId());
         } else {
             joinRequest.setStatus(JoinRequest.RequestStatus.REJECTED);
+            householdEventBroadcaster.publish(household.getId(), "join_request.rejected", List.of(), joinRequest.getUser().getId());
         }
 
         joinRequest.setJoinedAt(LocalDateTime.now());
@@ -329,6 +449,8 @@ public class HouseholdService {
         joinRequest.setRespondedBy(host);
         
         joinRequestRepository.save(joinRequest);
+        householdVersionService.bump(household.getId());
+        householdResponseCache.invalidate(household.getId());
     }
 
     @Transactional
@@ -340,6 +462,7 @@ public class HouseholdService {
                 .orElseThrow(() -> new HouseholdNotFoundException("You are not in any household"));
 
         Household household = membership.getHousehold();
+        householdEventBroadcaster.disconnect(household.getId(), userId);
 
         // FIX: Changed HOST to OWNER
         if (membership.getRole() == HouseholdMember.MemberRole.OWNER) {
@@ -347,6 +470,7 @@ public class HouseholdService {
 
             if (members.size() == 1) {
                 householdRepository.delete(household);
+                householdResponseCache.invalidate(household.getId());
             } else {
                 HouseholdMember newHost = members.stream()
                         .filter(m -> !m.getUser().getId().equals(userId))
@@ -359,9 +483,17 @@ public class HouseholdService {
                 householdMemberRepository.save(newHost);
                 householdRepository.save(household);
                 householdMemberRepository.delete(membership);
+                userStatsService.onMemberLeft(userId, household.getId());
+                householdVersionService.bump(household.getId());
+                householdResponseCache.invalidate(household.getId());
+                householdEventBroadcaster.publish(household.getId(), "member.left", List.of(), userId);
             }
         } else {
             householdMemberRepository.delete(membership);
+            userStatsService.onMemberLeft(userId, household.getId());
+            householdVersionService.bump(household.getId());
+            householdResponseCache.invalidate(household.getId());
+            householdEventBroadcaster.publish(household.getId(), "member.left", List.of(), userId);
         }
     }
 }
\ No newline at end of file
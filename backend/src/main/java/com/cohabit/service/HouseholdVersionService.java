@@ -0,0 +1,89 @@
+package com.cohabit.service;
+
+import com.cohabit.repository.HouseholdMemberRepository;
+import com.cohabit.repository.HouseholdRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Per-household change version used for conditional reads.
+ *
+ * Every mutation that can change what a member sees (tasks, completions, XP, membership,
+ * join requests) bumps households.change_version inside its own transaction. Reads turn the
+ * version into a strong ETag, so an unchanged If-None-Match is answered with a single
+ * indexed lookup instead of rebuilding the payload. Responses differ per viewer (host view,
+ * role, around-me), so the tag names the viewer too and responses are marked private:
+ * another account on the same browser or a shared cache never gets a 304 for someone else's body.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HouseholdVersionService {
+
+    /**
+     * Cache-Control for every response tagged by currentETag: stored by the viewer's own client
+     * only, and always revalidated
+     */
+    public static final CacheControl VIEWER_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private final HouseholdRepository householdRepository;
+    private final HouseholdMemberRepository householdMemberRepository;
+
+    /**
+     * Mark the household as changed. Call inside the mutating transaction, after the writes,
+     * so the row lock on the household is held as briefly as possible.
+     */
+    public void bump(Long householdId) {
+        householdRepository.incrementChangeVersion(householdId);
+    }
+
+    /**
+     * Mark the household of the given user as changed, if they are in one
+     * (profile changes show up in member lists and the leaderboard)
+     */
+    public void bumpForUser(Long userId) {
+        householdMemberRepository.findHouseholdVersionByUserId(userId)
+                .ifPresent(v -> bump(v.getHouseholdId()));
+    }
+
+    public void bumpAll(Collection<Long> householdIds) {
+        if (!householdIds.isEmpty()) {
+            householdRepository.incrementChangeVersions(householdIds);
+        }
+    }
+
+    /**
+     * ETag for the household the user currently belongs to, or empty if they are not in one.
+     * Read before loading any data, so a concurrent change can only make the tag look older.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> currentETag(Long userId) {
+        return householdMemberRepository.findHouseholdVersionByUserId(userId)
+                .map(v -> "\"h" + v.getHouseholdId() + "-u" + userId + "-v" + v.getChangeVersion() + "\"");
+    }
+
+    /**
+     * Whether the request's If-None-Match already names this ETag (or is a wildcard)
+     */
+    public boolean isNotModified(HttpServletRequest request, String eTag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
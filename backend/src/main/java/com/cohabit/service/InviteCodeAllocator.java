@@ -0,0 +1,147 @@
+package com.cohabit.service;
+
+import com.cohabit.util.InviteCodeCipher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.util.List;
+
+/**
+ * Hands out household invite codes that are unique by construction.
+ *
+ * Codes are the values of a counter in invite_code_sequence run through InviteCodeCipher, a keyed
+ * permutation, so no two values of one length map to the same code and codes of different lengths
+ * never clash. Values are reserved from the row in blocks (one locked read and one UPDATE per block,
+ * in their own short transaction), so allocation is O(1) with no existence check and no retry, and
+ * several app instances never hand out the same value. Once the watermark share of the codes of the
+ * current length is used, the sequence moves on to codes one character longer.
+ *
+ * When the row is first created, households with codes from the old random generator may already
+ * exist; those are all 6 characters, so the sequence then starts at 7.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InviteCodeAllocator {
+
+    private static final int INITIAL_LENGTH = 6;
+
+    private static final String SELECT_SEQUENCE_SQL =
+            "SELECT code_length, next_value, permutation_key FROM invite_code_sequence WHERE id = 1 FOR UPDATE";
+
+    private static final String CREATE_SEQUENCE_SQL =
+            "INSERT IGNORE INTO invite_code_sequence (id, code_length, next_value, permutation_key) " +
+            "SELECT 1, IF(EXISTS (SELECT 1 FROM households), ?, ?), 0, ?";
+
+    private static final String UPDATE_SEQUENCE_SQL =
+            "UPDATE invite_code_sequence SET code_length = ?, next_value = ? WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${invite-codes.block-size:100}")
+    private int blockSize;
+
+    @Value("${invite-codes.watermark:0.5}")
+    private double watermark;
+
+    private record Sequence(int length, long nextValue, long key) {
+    }
+
+    private record Reservation(int length, long start, long end, long key) {
+    }
+
+    // Values [next, end) of codes of this length are reserved for this instance
+    private record Block(InviteCodeCipher cipher, int length, long end) {
+    }
+
+    private final SecureRandom random = new SecureRandom();
+    private TransactionTemplate reserveTransaction;
+    private Block block;
+    private long next;
+    private volatile int currentLength;
+
+    private Counter allocatedCounter;
+    private Counter blocksReservedCounter;
+
+    @PostConstruct
+    public void init() {
+        reserveTransaction = new TransactionTemplate(transactionManager);
+        reserveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        allocatedCounter = meterRegistry.counter("invite.codes.allocated");
+        blocksReservedCounter = meterRegistry.counter("invite.codes.blocks.reserved");
+        meterRegistry.gauge("invite.codes.length", this, allocator -> allocator.currentLength);
+    }
+
+    /**
+     * A code no other household has been given
+     */
+    public synchronized String allocate() {
+        if (block == null || next >= block.end()) {
+            reserveBlock();
+        }
+        allocatedCounter.increment();
+        return block.cipher().encode(next++);
+    }
+
+    private void reserveBlock() {
+        Block previous = block;
+        Reservation reserved = reserveTransaction.execute(status -> {
+            // Step 1: Lock the sequence row, creating it on first use
+            Sequence sequence = lockSequence();
+            if (sequence == null) {
+                jdbcTemplate.update(CREATE_SEQUENCE_SQL, INITIAL_LENGTH + 1, INITIAL_LENGTH, random.nextLong());
+                sequence = lockSequence();
+            }
+
+            // Step 2: Move to longer codes once this length is past the watermark
+            int length = sequence.length();
+            long start = sequence.nextValue();
+            if (start >= limit(length)) {
+                if (length >= InviteCodeCipher.MAX_LENGTH) {
+                    throw new IllegalStateException("Invite codes exhausted at " + length + " characters");
+                }
+                length++;
+                start = 0;
+                log.warn("Invite codes reached the {} watermark; moving to {}-character codes", watermark, length);
+            }
+
+            // Step 3: Take a block, never crossing the watermark
+            long end = Math.min(start + blockSize, limit(length));
+            jdbcTemplate.update(UPDATE_SEQUENCE_SQL, length, end);
+            return new Reservation(length, start, end, sequence.key());
+        });
+
+        InviteCodeCipher cipher = previous != null && previous.length() == reserved.length()
+                ? previous.cipher()
+                : new InviteCodeCipher(reserved.length(), reserved.key());
+        block = new Block(cipher, reserved.length(), reserved.end());
+        next = reserved.start();
+        currentLength = reserved.length();
+        blocksReservedCounter.increment();
+    }
+
+    private Sequence lockSequence() {
+        List<Sequence> rows = jdbcTemplate.query(SELECT_SEQUENCE_SQL,
+                (rs, rowNum) -> new Sequence(rs.getInt("code_length"), rs.getLong("next_value"),
+                        rs.getLong("permutation_key")));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // Values of this length handed out before moving to the next length
+    private long limit(int length) {
+        return Math.max(1, (long) (InviteCodeCipher.capacity(length) * watermark));
+    }
+}
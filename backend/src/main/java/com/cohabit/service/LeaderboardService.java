@@ -7,16 +7,23 @@ import com.cohabit.model.Household;
 import com.cohabit.model.HouseholdMember;
 import com.cohabit.model.User;
 import com.cohabit.repository.HouseholdMemberRepository;
-import com.cohabit.repository.TaskCompletionRepository;
 import com.cohabit.repository.UserRepository;
+import com.cohabit.repository.UserStatsRepository;
+import com.cohabit.repository.UserXpDailyRepository;
+import com.cohabit.util.RankedLeaderboard;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,7 +33,16 @@ public class LeaderboardService {
 
     private final UserRepository userRepository;
     private final HouseholdMemberRepository householdMemberRepository;
-    private final TaskCompletionRepository taskCompletionRepository;
+    private final UserStatsRepository userStatsRepository;
+    private final HouseholdRankingService householdRankingService;
+    private final UserXpDailyRepository userXpDailyRepository;
+    private final UserStatsService userStatsService;
+
+    private static final int DEFAULT_TOP_LIMIT = 10;
+    private static final int MAX_TOP_LIMIT = 100;
+    private static final int DEFAULT_AROUND_RADIUS = 5;
+    private static final int MAX_AROUND_RADIUS = 50;
+    private static final Pattern ROLLING_WINDOW = Pattern.compile("\\d{1,4}d");
 
     @Transactional(readOnly = true)
     public List<LeaderboardResponse> getHouseholdLeaderboard(Long userId) {
@@ -41,38 +57,22 @@ public class LeaderboardService {
 
         Household household = membership.getHousehold();
 
-        // Step 3: Get all members of the household
-        List<HouseholdMember> members = householdMemberRepository
-                .findByHouseholdIdWithUser(household.getId());
+        // Step 3: Read the ranked leaderboard straight from user_stats (already in XP order)
+        List<UserStatsRepository.LeaderboardRow> rows = userStatsRepository.findLeaderboard(household.getId());
 
-        // Step 4: Build leaderboard entries
-        List<LeaderboardResponse> leaderboard = new ArrayList<>();
-        
-        for (HouseholdMember member : members) {
-            User memberUser = member.getUser();
-            
-            // Count completed tasks
-            int tasksCompleted = taskCompletionRepository
-                    .findByCompletedBy(memberUser).size();
-            
-            LeaderboardResponse entry = LeaderboardResponse.builder()
-                    .userId(memberUser.getId())
-                    .displayName(memberUser.getDisplayName())
-                    .username(memberUser.getUsername())
-                    .totalXp(memberUser.getTotalXp() != null ? memberUser.getTotalXp() : 0)
-                    .level(memberUser.getLevel() != null ? memberUser.getLevel() : 1)
-                    .tasksCompleted(tasksCompleted)
-                    .build();
-            
-            leaderboard.add(entry);
-        }
-
-        // Step 5: Sort by total XP (descending) and assign ranks
-        leaderboard.sort(Comparator.comparing(LeaderboardResponse::getTotalXp).reversed());
-        
+        // Step 4: Build leaderboard entries and assign ranks
+        List<LeaderboardResponse> leaderboard = new ArrayList<>(rows.size());
         int rank = 1;
-        for (LeaderboardResponse entry : leaderboard) {
-            entry.setRank(rank++);
+        for (UserStatsRepository.LeaderboardRow row : rows) {
+            leaderboard.add(LeaderboardResponse.builder()
+                    .userId(row.getUserId())
+                    .displayName(row.getDisplayName())
+                    .username(row.getUsername())
+                    .totalXp(row.getTotalXp() != null ? row.getTotalXp() : 0)
+                    .level(row.getLevel() != null ? row.getLevel() : 1)
+                    .tasksCompleted(row.getTasksCompleted() != null ? row.getTasksCompleted() : 0)
+                    .rank(rank++)
+                    .build());
         }
 
         log.info("Retrieved leaderboard for household {} with {} members", 
@@ -80,5 +80,126 @@ public class LeaderboardService {
         
         return leaderboard;
     }
-}
 
+    /**
+     * The household's top members, from the in-memory ranking.
+     * Not transactional: a cold ranking loads in its own transaction, so holding one open
+     * here would take a second connection for the same request.
+     */
+    public List<LeaderboardResponse> getTopLeaderboard(Long userId, Integer limit) {
+        Long householdId = getHouseholdIdForUser(userId);
+        int k = limit == null ? DEFAULT_TOP_LIMIT : Math.max(1, Math.min(limit, MAX_TOP_LIMIT));
+
+        List<RankedLeaderboard.Entry> entries = householdRankingService.ranking(householdId).top(k);
+        return buildResponses(entries);
+    }
+
+    /**
+     * The current user and the members ranked directly above and below them, from the in-memory ranking.
+     * Not transactional, for the same reason as getTopLeaderboard.
+     */
+    public List<LeaderboardResponse> getLeaderboardAroundUser(Long userId, Integer radius) {
+        Long householdId = getHouseholdIdForUser(userId);
+        int r = radius == null ? DEFAULT_AROUND_RADIUS : Math.max(0, Math.min(radius, MAX_AROUND_RADIUS));
+
+        List<RankedLeaderboard.Entry> entries = householdRankingService.ranking(householdId).around(userId, r);
+        return buildResponses(entries);
+    }
+
+    /**
+     * Members ranked by XP earned within a window: "week" (since Monday), "month" (since the 1st)
+     * or "<n>d" (the last n days, today included). Summed from daily XP buckets.
+     */
+    @Transactional(readOnly = true)
+    public List<LeaderboardResponse> getWindowLeaderboard(Long userId, String window, Integer limit) {
+        Household household = getHouseholdForUser(userId);
+        LocalDate fromDay = windowStart(window, LocalDate.now());
+        int maxRows = limit == null ? Integer.MAX_VALUE : Math.max(1, Math.min(limit, MAX_TOP_LIMIT));
+
+        List<UserStatsRepository.LeaderboardRow> rows = userXpDailyRepository
+                .findWindowLeaderboard(household.getId(), fromDay, maxRows);
+
+        List<LeaderboardResponse> leaderboard = new ArrayList<>(rows.size());
+        int rank = 1;
+        for (UserStatsRepository.LeaderboardRow row : rows) {
+            leaderboard.add(LeaderboardResponse.builder()
+                    .userId(row.getUserId())
+                    .displayName(row.getDisplayName())
+                    .username(row.getUsername())
+                    .totalXp(row.getTotalXp() != null ? row.getTotalXp() : 0)
+                    .level(row.getLevel() != null ? row.getLevel() : 1)
+                    .tasksCompleted(row.getTasksCompleted() != null ? row.getTasksCompleted() : 0)
+                    .rank(rank++)
+                    .build());
+        }
+        return leaderboard;
+    }
+
+    private LocalDate windowStart(String window, LocalDate today) {
+        LocalDate fromDay;
+        if (window.equals("week")) {
+            fromDay = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        } else if (window.equals("month")) {
+            fromDay = today.withDayOfMonth(1);
+        } else if (ROLLING_WINDOW.matcher(window).matches()) {
+            int days = Integer.parseInt(window.substring(0, window.length() - 1));
+            if (days < 1) {
+                throw new IllegalArgumentException("Leaderboard window must cover at least one day");
+            }
+            fromDay = today.minusDays(days - 1L);
+        } else {
+            throw new IllegalArgumentException("Unknown leaderboard window: " + window);
+        }
+
+        if (fromDay.isBefore(userStatsService.oldestRetainedDay())) {
+            throw new IllegalArgumentException("Leaderboard window reaches further back than the retained history");
+        }
+        return fromDay;
+    }
+
+    private Household getHouseholdForUser(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+
+        return householdMemberRepository.findByUser(user)
+                .orElseThrow(() -> new NotInHouseholdException(
+                        "You must be in a household to view leaderboard"))
+                .getHousehold();
+    }
+
+    // Id-only membership lookup, for callers that run outside a transaction
+    private Long getHouseholdIdForUser(Long userId) {
+        return householdMemberRepository.findHouseholdVersionByUserId(userId)
+                .map(HouseholdMemberRepository.HouseholdVersion::getHouseholdId)
+                .orElseThrow(() -> userRepository.existsById(userId)
+                        ? new NotInHouseholdException("You must be in a household to view leaderboard")
+                        : new UserNotFoundException("User not found"));
+    }
+
+    /**
+     * Attach names and levels to ranked entries with one lookup of the users involved
+     */
+    private List<LeaderboardResponse> buildResponses(List<RankedLeaderboard.Entry> entries) {
+        List<Long> userIds = entries.stream().map(RankedLeaderboard.Entry::userId).collect(Collectors.toList());
+        Map<Long, User> usersById = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<LeaderboardResponse> leaderboard = new ArrayList<>(entries.size());
+        for (RankedLeaderboard.Entry entry : entries) {
+            User member = usersById.get(entry.userId());
+            if (member == null) {
+                continue; // Account deleted since the ranking was built
+            }
+            leaderboard.add(LeaderboardResponse.builder()
+                    .userId(member.getId())
+                    .displayName(member.getDisplayName())
+                    .username(member.getUsername())
+                    .totalXp(entry.xp())
+                    .level(member.getLevel() != null ? member.getLevel() : 1)
+                    .tasksCompleted(entry.tasksCompleted())
+                    .rank(entry.rank())
+                    .build());
+        }
+        return leaderboard;
+    }
+}
@@ -0,0 +1,27 @@
+package com.cohabit.service;
+
+import com.cohabit.model.Notification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Local stand-in sink: logs each notification instead of delivering it
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.sink", havingValue = "log", matchIfMissing = true)
+@Slf4j
+public class LoggingNotificationSink implements NotificationSink {
+
+    @Override
+    public Set<Long> deliver(List<Notification> batch) {
+        for (Notification n : batch) {
+            log.info("Notification {} -> user {}: [{}] {}", n.getId(), n.getUserId(), n.getType(), n.getTitle());
+        }
+        return batch.stream().map(Notification::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,203 @@
+package com.cohabit.service;
+
+import com.cohabit.model.Notification;
+import com.cohabit.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers due notifications through the configured NotificationSink.
+ *
+ * Each worker claims a batch of due, queued rows with SELECT ... FOR UPDATE SKIP LOCKED and
+ * marks it in flight (next_attempt_at pushed out by claim-timeout-seconds, attempts counted)
+ * in one short transaction, so no lock or connection is held while the sink talks to the
+ * network. Other workers and instances skip in-flight rows; a worker that dies mid-batch
+ * leaves them to be claimed again once the claim times out. Outcomes are written with one
+ * UPDATE each: delivered rows are marked sent, failed rows back off by retry-delay-seconds,
+ * and a row that fails max-attempts times is dead-lettered (failed_at) instead of retried
+ * forever. scheduled_for is never rewritten, so delivery latency includes retry delay.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDispatcher {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationSink notificationSink;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notifications.dispatcher.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notifications.dispatcher.threads:2}")
+    private int threads;
+
+    @Value("${notifications.dispatcher.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notifications.dispatcher.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${notifications.dispatcher.retry-delay-seconds:60}")
+    private long retryDelaySeconds;
+
+    @Value("${notifications.dispatcher.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${notifications.dispatcher.claim-timeout-seconds:300}")
+    private long claimTimeoutSeconds;
+
+    private TransactionTemplate transactionTemplate;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private Timer claimTimer;
+    private Timer deliveryLatencyTimer;
+    private Counter deliveredCounter;
+    private Counter failedCounter;
+    private Counter deadLetteredCounter;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        meterRegistry.gauge("notifications.backlog", backlog);
+        claimTimer = meterRegistry.timer("notifications.claim.duration");
+        deliveryLatencyTimer = meterRegistry.timer("notifications.delivery.latency");
+        deliveredCounter = meterRegistry.counter("notifications.delivered");
+        failedCounter = meterRegistry.counter("notifications.failed");
+        deadLetteredCounter = meterRegistry.counter("notifications.dead.lettered");
+
+        if (!enabled) {
+            log.info("NotificationDispatcher disabled");
+            return;
+        }
+
+        running = true;
+        for (int i = 1; i <= threads; i++) {
+            Thread worker = new Thread(this::workerLoop, "NotificationDispatcher-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("NotificationDispatcher started ({} workers, batch {}, sink {})",
+                threads, batchSize, notificationSink.getClass().getSimpleName());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("NotificationDispatcher shut down");
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.dispatcher.backlog-refresh-ms:10000}")
+    public void refreshBacklog() {
+        backlog.set(notificationRepository.countDue(LocalDateTime.now()));
+    }
+
+    private void workerLoop() {
+        while (running) {
+            try {
+                int claimed = dispatchBatch();
+                // A full batch means more is waiting: go again without sleeping
+                if (claimed < batchSize) {
+                    Thread.sleep(pollIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Notification dispatch failed", e);
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private int dispatchBatch() {
+        // Step 1: Claim due rows no one else is working on and mark them in flight
+        List<Notification> batch = claimTimer.record(() -> transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Notification> claimed = notificationRepository.claimDue(now, batchSize);
+            notificationRepository.markInFlight(
+                    claimed.stream().map(Notification::getId).collect(Collectors.toList()),
+                    now.plusSeconds(claimTimeoutSeconds));
+            return claimed;
+        }));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        // Step 2: Deliver outside any transaction; a sink error fails the whole batch
+        Set<Long> delivered;
+        try {
+            delivered = notificationSink.deliver(batch);
+        } catch (Exception e) {
+            log.warn("Notification sink failed for a batch of {}", batch.size(), e);
+            delivered = Set.of();
+        }
+
+        // Step 3: Mark delivered rows sent, back failed ones off, dead-letter those out of attempts
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>(delivered.size());
+        List<Long> retryIds = new ArrayList<>();
+        List<Long> deadIds = new ArrayList<>();
+        for (Notification notification : batch) {
+            if (delivered.contains(notification.getId())) {
+                sentIds.add(notification.getId());
+                deliveryLatencyTimer.record(Duration.between(notification.getScheduledFor(), now));
+            } else if (notification.getAttempts() + 1 >= maxAttempts) {
+                deadIds.add(notification.getId());
+            } else {
+                retryIds.add(notification.getId());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationRepository.markSent(sentIds, now);
+            notificationRepository.reschedule(retryIds, now.plusSeconds(retryDelaySeconds));
+            notificationRepository.markFailed(deadIds, now);
+        });
+        if (!deadIds.isEmpty()) {
+            log.warn("Dead-lettered {} notifications after {} failed attempts", deadIds.size(), maxAttempts);
+        }
+
+        deliveredCounter.increment(sentIds.size());
+        failedCounter.increment(retryIds.size() + deadIds.size());
+        deadLetteredCounter.increment(deadIds.size());
+        return batch.size();
+    }
+}
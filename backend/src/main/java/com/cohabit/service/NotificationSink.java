@@ -0,0 +1,18 @@
+package com.cohabit.service;
+
+import com.cohabit.model.Notification;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Delivery channel for notifications (push, email, ...). Implementations receive a whole
+ * claimed batch and report which notifications were delivered; the rest are retried later.
+ */
+public interface NotificationSink {
+
+    /**
+     * @return ids of the notifications that were delivered
+     */
+    Set<Long> deliver(List<Notification> batch) throws Exception;
+}
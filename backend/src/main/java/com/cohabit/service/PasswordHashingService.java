@@ -0,0 +1,162 @@
+package com.cohabit.service;
+
+import com.cohabit.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on a dedicated, core-count-sized pool so login/register bursts
+ * cannot pin every request thread. Admission is bounded and so is the wait:
+ * callers that cannot get a slot, or whose hash has not finished, within
+ * admission-timeout-ms of arriving fail fast with a 503. Call it before opening
+ * a transaction so no connection is held while BCrypt runs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${password-hashing.threads:0}") // 0 = number of CPU cores
+    private int threads;
+
+    @Value("${password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${password-hashing.admission-timeout-ms:500}")
+    private long admissionTimeoutMs;
+
+    private ExecutorService executorService;
+    private Semaphore admission;
+
+    private Timer queueWaitTimer;
+    private Timer hashTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        // Permits cover running + queued hashes, so the executor queue never grows past the bound
+        admission = new Semaphore(poolSize + queueCapacity);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executorService = Executors.newFixedThreadPool(poolSize, r -> {
+            Thread t = new Thread(r);
+            t.setName("PasswordHashing-Worker-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        queueWaitTimer = meterRegistry.timer("password.hash.queue.wait");
+        hashTimer = meterRegistry.timer("password.hash.duration");
+        rejectedCounter = meterRegistry.counter("password.hash.rejected");
+        meterRegistry.gauge("password.hash.in_flight", admission,
+                s -> poolSize + queueCapacity - s.availablePermits());
+
+        log.info("PasswordHashingService initialized with {} threads and queue capacity {}",
+                poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executorService != null) {
+            executorService.shutdown();
+            try {
+                if (!executorService.awaitTermination(5, TimeUnit.SECONDS)) {
+                    executorService.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executorService.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            log.info("PasswordHashingService thread pool shut down");
+        }
+    }
+
+    public String encode(String rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T execute(Supplier<T> work) {
+        long submittedAt = System.nanoTime();
+        long deadline = submittedAt + TimeUnit.MILLISECONDS.toNanos(admissionTimeoutMs);
+
+        boolean admitted;
+        try {
+            admitted = admission.tryAcquire(admissionTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Authentication is busy, please try again");
+        }
+        if (!admitted) {
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Authentication is busy, please try again");
+        }
+
+        // Whoever flips this first owns the permit: the worker when the hash starts, or a
+        // caller that gives up before then. A started hash keeps its permit until it finishes,
+        // so abandoned work still counts against the bound.
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executorService.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null; // the caller already gave up
+                }
+                try {
+                    queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                    return hashTimer.record(work);
+                } finally {
+                    admission.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            admission.release();
+            throw new ServiceBusyException("Authentication is busy, please try again");
+        }
+
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(future, claimed);
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Authentication is busy, please try again");
+        } catch (InterruptedException e) {
+            abandon(future, claimed);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Authentication is busy, please try again");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private void abandon(Future<?> future, AtomicBoolean claimed) {
+        future.cancel(false);
+        if (claimed.compareAndSet(false, true)) {
+            admission.release();
+        }
+    }
+}
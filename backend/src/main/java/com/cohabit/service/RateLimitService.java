@@ -0,0 +1,108 @@
+package com.cohabit.service;
+
+import com.cohabit.exception.TooManyRequestsException;
+import com.cohabit.util.StripedRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+
+/**
+ * In-memory throttling for login/register attempts and public invite-code lookups.
+ * Nothing here touches the database, so a rejected request costs no queries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitService {
+
+    private static final int STRIPES = 64;
+    private static final int INVITE_PREFIX_LENGTH = 3;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${rate-limit.idle-timeout-ms:600000}")
+    private long idleTimeoutMs;
+
+    @Value("${rate-limit.login.username.capacity:10}")
+    private int loginUsernameCapacity;
+
+    @Value("${rate-limit.login.username.refill-per-minute:5}")
+    private double loginUsernameRefill;
+
+    @Value("${rate-limit.auth.ip.capacity:30}")
+    private int authIpCapacity;
+
+    @Value("${rate-limit.auth.ip.refill-per-minute:30}")
+    private double authIpRefill;
+
+    @Value("${rate-limit.invite.ip.capacity:20}")
+    private int inviteIpCapacity;
+
+    @Value("${rate-limit.invite.ip.refill-per-minute:10}")
+    private double inviteIpRefill;
+
+    @Value("${rate-limit.invite.prefix.capacity:30}")
+    private int invitePrefixCapacity;
+
+    @Value("${rate-limit.invite.prefix.refill-per-minute:30}")
+    private double invitePrefixRefill;
+
+    private StripedRateLimiter loginByUsername;
+    private StripedRateLimiter authByIp;
+    private StripedRateLimiter inviteByIp;
+    private StripedRateLimiter inviteByPrefix;
+
+    private Counter authRejected;
+    private Counter inviteRejected;
+
+    @PostConstruct
+    public void init() {
+        loginByUsername = new StripedRateLimiter(loginUsernameCapacity, loginUsernameRefill, idleTimeoutMs, maxKeys, STRIPES);
+        authByIp = new StripedRateLimiter(authIpCapacity, authIpRefill, idleTimeoutMs, maxKeys, STRIPES);
+        inviteByIp = new StripedRateLimiter(inviteIpCapacity, inviteIpRefill, idleTimeoutMs, maxKeys, STRIPES);
+        inviteByPrefix = new StripedRateLimiter(invitePrefixCapacity, invitePrefixRefill, idleTimeoutMs, maxKeys, STRIPES);
+
+        authRejected = meterRegistry.counter("ratelimit.rejected", "limiter", "auth");
+        inviteRejected = meterRegistry.counter("ratelimit.rejected", "limiter", "invite");
+        meterRegistry.gauge("ratelimit.keys", Tags.of("limiter", "login_username"), loginByUsername, StripedRateLimiter::size);
+        meterRegistry.gauge("ratelimit.keys", Tags.of("limiter", "auth_ip"), authByIp, StripedRateLimiter::size);
+        meterRegistry.gauge("ratelimit.keys", Tags.of("limiter", "invite_ip"), inviteByIp, StripedRateLimiter::size);
+        meterRegistry.gauge("ratelimit.keys", Tags.of("limiter", "invite_prefix"), inviteByPrefix, StripedRateLimiter::size);
+    }
+
+    public void checkLogin(String username, String clientIp) {
+        if (!authByIp.tryAcquire(clientIp)
+                || !loginByUsername.tryAcquire(username.toLowerCase(Locale.ROOT))) {
+            authRejected.increment();
+            log.warn("Login throttled for username {} from {}", username, clientIp);
+            throw new TooManyRequestsException("Too many login attempts, please try again later");
+        }
+    }
+
+    public void checkRegister(String clientIp) {
+        if (!authByIp.tryAcquire(clientIp)) {
+            authRejected.increment();
+            throw new TooManyRequestsException("Too many attempts, please try again later");
+        }
+    }
+
+    public void checkInviteLookup(String inviteCode, String clientIp) {
+        String code = inviteCode.toUpperCase(Locale.ROOT);
+        String prefix = code.length() > INVITE_PREFIX_LENGTH ? code.substring(0, INVITE_PREFIX_LENGTH) : code;
+
+        if (!inviteByIp.tryAcquire(clientIp) || !inviteByPrefix.tryAcquire(prefix)) {
+            inviteRejected.increment();
+            throw new TooManyRequestsException("Too many lookups, please try again later");
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.cohabit.service;
+
+import com.cohabit.model.Task;
+import com.cohabit.model.TaskAssignment;
+import com.cohabit.model.TaskRecurrence;
+import com.cohabit.repository.TaskAssignmentRepository;
+import com.cohabit.repository.TaskAssignmentRepositoryCustom.AssignmentRow;
+import com.cohabit.repository.TaskRecurrenceRepository;
+import com.cohabit.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Generates upcoming occurrences of recurring tasks ahead of time.
+ *
+ * Each series is tracked by a task_recurrences row whose next_due_at acts as its high-water mark,
+ * so a run only reads series that still have occurrences to generate. Work is split into chunks
+ * of households, each in its own transaction, with tasks and assignments inserted in JDBC batches.
+ * A chunk claims its series with FOR UPDATE SKIP LOCKED and advances next_due_at before committing,
+ * so instances running at the same time never generate the same occurrence. Slots that fell due
+ * while nothing ran (a head task due long ago, or downtime) are skipped rather than generated
+ * as a backlog of overdue copies: a series resumes at its first slot from now on.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecurringTaskMaterializer {
+
+    private final TaskRecurrenceRepository taskRecurrenceRepository;
+    private final TaskRepository taskRepository;
+    private final TaskAssignmentRepository taskAssignmentRepository;
+    private final HouseholdVersionService householdVersionService;
+    private final HouseholdEventBroadcaster householdEventBroadcaster;
+    private final TaskSearchService taskSearchService;
+    private final TaskReminderScheduler taskReminderScheduler;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${recurrence.enabled:true}")
+    private boolean enabled;
+
+    @Value("${recurrence.horizon-days:7}")
+    private int horizonDays;
+
+    @Value("${recurrence.households-per-chunk:100}")
+    private int householdsPerChunk;
+
+    @Value("${recurrence.max-occurrences-per-series:60}")
+    private int maxOccurrencesPerSeries;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Counter generatedCounter;
+    private Counter skippedCounter;
+    private Timer chunkTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        generatedCounter = meterRegistry.counter("recurrence.occurrences.generated");
+        skippedCounter = meterRegistry.counter("recurrence.occurrences.skipped");
+        chunkTimer = meterRegistry.timer("recurrence.chunk.duration");
+        meterRegistry.gauge("recurrence.lag.seconds", lagSeconds);
+    }
+
+    /**
+     * Whether a rule has a fixed interval the materializer can generate from
+     */
+    public static boolean isMaterializable(Task.RecurrenceRule rule) {
+        return rule == Task.RecurrenceRule.DAILY
+                || rule == Task.RecurrenceRule.WEEKLY
+                || rule == Task.RecurrenceRule.MONTHLY;
+    }
+
+    /**
+     * Start (or restart) a series with the given task as its head.
+     * Must be called inside the transaction that created or updated the task.
+     */
+    public void registerSeries(Task task) {
+        if (!isMaterializable(task.getRecurrenceRule())) {
+            taskRecurrenceRepository.findByHeadTaskId(task.getId())
+                    .ifPresent(taskRecurrenceRepository::delete);
+            return;
+        }
+
+        TaskRecurrence recurrence = taskRecurrenceRepository.findByHeadTaskId(task.getId())
+                .orElseGet(TaskRecurrence::new);
+        recurrence.setHouseholdId(task.getHousehold().getId());
+        recurrence.setHeadTaskId(task.getId());
+        recurrence.setNextDueAt(nextDueDate(task));
+        taskRecurrenceRepository.save(recurrence);
+    }
+
+    /**
+     * Keep the series in step with an edited task. Only the head of a series drives it;
+     * editing an older occurrence never starts a second series for the same chore.
+     */
+    public void onTaskUpdated(Task task, boolean wasMaterializable) {
+        boolean isHead = taskRecurrenceRepository.findByHeadTaskId(task.getId()).isPresent();
+        if (isHead || (!wasMaterializable && isMaterializable(task.getRecurrenceRule()))) {
+            registerSeries(task);
+        }
+    }
+
+    /**
+     * Keep the series going when its head task is deleted: the head moves back to the previous
+     * occurrence and generation carries on from next_due_at, so only the deleted occurrence is
+     * skipped. Deleting the only occurrence left ends the series. Call inside the deleting
+     * transaction, before the task row is removed.
+     */
+    public void onTaskDeleting(Task task) {
+        taskRecurrenceRepository.lockByHeadTaskId(task.getId()).ifPresent(recurrence -> {
+            Optional<Long> previous = taskRepository.findPreviousOccurrenceIds(
+                    task.getHousehold().getId(), task.getTitle(), task.getRecurrenceRule(),
+                    task.getCreatedBy().getId(), task.getId(), task.getDueDate(), PageRequest.of(0, 1))
+                    .stream()
+                    .findFirst();
+            if (previous.isPresent()) {
+                recurrence.setHeadTaskId(previous.get());
+                taskRecurrenceRepository.saveAndFlush(recurrence);
+            } else {
+                taskRecurrenceRepository.delete(recurrence);
+                taskRecurrenceRepository.flush();
+                log.info("Recurring series {} ended: its last task {} was deleted", recurrence.getId(), task.getId());
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${recurrence.interval-ms:60000}",
+               initialDelayString = "${recurrence.initial-delay-ms:30000}")
+    public void materialize() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime horizon = LocalDateTime.now().plusDays(horizonDays);
+        long startTime = System.currentTimeMillis();
+        long afterHouseholdId = 0L;
+        int totalGenerated = 0;
+
+        while (true) {
+            List<Long> householdIds = taskRecurrenceRepository.findDueHouseholdIds(
+                    horizon, afterHouseholdId, PageRequest.of(0, householdsPerChunk));
+            if (householdIds.isEmpty()) {
+                break;
+            }
+
+            Integer generated = chunkTimer.record(() ->
+                    transactionTemplate.execute(status -> materializeChunk(householdIds, horizon)));
+            totalGenerated += generated != null ? generated : 0;
+            afterHouseholdId = householdIds.get(householdIds.size() - 1);
+        }
+
+        // Lag: how far past due the oldest not-yet-generated occurrence is
+        LocalDateTime now = LocalDateTime.now();
+        lagSeconds.set(taskRecurrenceRepository.findEarliestNextDueAt()
+                .filter(earliest -> earliest.isBefore(now))
+                .map(earliest -> Duration.between(earliest, now).getSeconds())
+                .orElse(0L));
+
+        if (totalGenerated > 0) {
+            log.info("Materialized {} recurring task occurrences in {}ms",
+                    totalGenerated, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private int materializeChunk(List<Long> householdIds, LocalDateTime horizon) {
+        // Step 1: Claim due series (skipping those another instance holds), their head tasks and rosters
+        List<TaskRecurrence> recurrences = taskRecurrenceRepository.claimDueByHouseholdIds(householdIds, horizon);
+        if (recurrences.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> headIds = recurrences.stream()
+                .map(TaskRecurrence::getHeadTaskId)
+                .collect(Collectors.toList());
+
+        Map<Long, Task> headsById = taskRepository.findAllById(headIds).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        Map<Long, List<TaskAssignment>> rosterByTask = taskAssignmentRepository.findByTaskIdsOrderById(headIds)
+                .stream()
+                .collect(Collectors.groupingBy(a -> a.getTask().getId()));
+
+        // Step 2: Build every occurrence from now up to the horizon in memory
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> newTasks = new ArrayList<>();
+        List<List<AssignmentRow>> newAssignments = new ArrayList<>(); // parallel to newTasks, taskId filled later
+        List<SeriesAdvance> advances = new ArrayList<>();
+
+        for (TaskRecurrence recurrence : recurrences) {
+            Task head = headsById.get(recurrence.getHeadTaskId());
+            if (head == null || !isMaterializable(head.getRecurrenceRule())) {
+                taskRecurrenceRepository.delete(recurrence);
+                continue;
+            }
+
+            List<TaskAssignment> roster = rosterByTask.getOrDefault(head.getId(), List.of());
+            int activeIndex = currentRotationIndex(roster);
+
+            LocalDateTime dueAt = skipMissed(recurrence.getNextDueAt(), head.getRecurrenceRule(), now);
+            if (!dueAt.equals(recurrence.getNextDueAt())) {
+                recurrence.setNextDueAt(dueAt); // dirty checking persists the skip even if nothing is generated
+            }
+            int count = 0;
+            while (!dueAt.isAfter(horizon) && count < maxOccurrencesPerSeries) {
+                newTasks.add(copyForOccurrence(head, dueAt));
+
+                if (Boolean.TRUE.equals(head.getRotateAssignments()) && !roster.isEmpty()) {
+                    activeIndex = (activeIndex + 1) % roster.size();
+                }
+                newAssignments.add(buildAssignments(head, roster, activeIndex));
+
+                dueAt = advance(dueAt, head.getRecurrenceRule());
+                count++;
+            }
+
+            if (count > 0) {
+                recurrence.setNextDueAt(dueAt);
+                recurrence.setOccurrencesGenerated(recurrence.getOccurrencesGenerated() + count);
+                advances.add(new SeriesAdvance(recurrence, newTasks.size() - 1));
+            }
+        }
+
+        if (newTasks.isEmpty()) {
+            return 0;
+        }
+
+        // Step 3: Insert tasks and assignments as JDBC batches
+        List<Long> newIds = taskRepository.batchInsert(newTasks);
+
+        List<AssignmentRow> rows = new ArrayList<>();
+        for (int i = 0; i < newIds.size(); i++) {
+            Long taskId = newIds.get(i);
+            for (AssignmentRow row : newAssignments.get(i)) {
+                rows.add(new AssignmentRow(taskId, row.assigneeId(), row.status()));
+            }
+        }
+        taskAssignmentRepository.batchInsert(rows);
+
+        // Step 4: Move each series head forward; dirty checking flushes these as batched updates
+        for (SeriesAdvance advance : advances) {
+            advance.recurrence().setHeadTaskId(newIds.get(advance.lastTaskIndex()));
+        }
+
+        // Step 5: Invalidate cached reads and notify every household that got new tasks
+        Map<Long, List<Long>> newIdsByHousehold = new HashMap<>();
+        for (int i = 0; i < newIds.size(); i++) {
+            newTasks.get(i).setId(newIds.get(i));
+            taskSearchService.onTaskSaved(newTasks.get(i));
+            taskReminderScheduler.onTaskChanged(newTasks.get(i));
+            newIdsByHousehold.computeIfAbsent(newTasks.get(i).getHousehold().getId(), id -> new ArrayList<>())
+                    .add(newIds.get(i));
+        }
+        householdVersionService.bumpAll(newIdsByHousehold.keySet());
+        newIdsByHousehold.forEach((householdId, taskIds) ->
+                householdEventBroadcaster.publish(householdId, "task.created", taskIds, null));
+
+        // Step 6: Re-stamp the new rows last, so the delta feed's settle window covers only the commit
+        taskRepository.touchUpdatedAt(newIds, LocalDateTime.now());
+
+        generatedCounter.increment(newIds.size());
+        return newIds.size();
+    }
+
+    // A series that got new occurrences, and the index in the batch of its last (new head) task
+    private record SeriesAdvance(TaskRecurrence recurrence, int lastTaskIndex) {
+    }
+
+    /**
+     * Index in the roster of the assignee currently on duty (first ACTIVE row)
+     */
+    private int currentRotationIndex(List<TaskAssignment> roster) {
+        for (int i = 0; i < roster.size(); i++) {
+            if (roster.get(i).getStatus() == TaskAssignment.AssignmentStatus.ACTIVE) {
+                return i;
+            }
+        }
+        return roster.size() - 1; // nobody active: start from the first member
+    }
+
+    /**
+     * Non-rotating tasks keep every active assignee. Rotating tasks keep the whole roster
+     * but only the member on duty is ACTIVE; the rest are CANCELED for this occurrence.
+     */
+    private List<AssignmentRow> buildAssignments(Task head, List<TaskAssignment> roster, int activeIndex) {
+        List<AssignmentRow> rows = new ArrayList<>(roster.size());
+        boolean rotate = Boolean.TRUE.equals(head.getRotateAssignments());
+
+        for (int i = 0; i < roster.size(); i++) {
+            TaskAssignment assignment = roster.get(i);
+            TaskAssignment.AssignmentStatus status;
+            if (rotate) {
+                status = i == activeIndex
+                        ? TaskAssignment.AssignmentStatus.ACTIVE
+                        : TaskAssignment.AssignmentStatus.CANCELED;
+            } else if (assignment.getStatus() == TaskAssignment.AssignmentStatus.ACTIVE) {
+                status = TaskAssignment.AssignmentStatus.ACTIVE;
+            } else {
+                continue;
+            }
+            rows.add(new AssignmentRow(null, assignment.getAssignee().getId(), status));
+        }
+        return rows;
+    }
+
+    private Task copyForOccurrence(Task head, LocalDateTime dueAt) {
+        Task task = new Task();
+        task.setHousehold(head.getHousehold());
+        task.setTitle(head.getTitle());
+        task.setDescription(head.getDescription());
+        task.setDifficulty(head.getDifficulty());
+        task.setXpPoints(head.getXpPoints());
+        task.setStatus(Task.TaskStatus.OPEN);
+        task.setDueDate(dueAt);
+        task.setRecurrenceRule(head.getRecurrenceRule());
+        task.setIsFreeForAll(head.getIsFreeForAll());
+        task.setRotateAssignments(head.getRotateAssignments());
+        task.setEstimatedTime(head.getEstimatedTime());
+        task.setCreatedBy(head.getCreatedBy());
+        return task;
+    }
+
+    private LocalDateTime nextDueDate(Task task) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime base = task.getDueDate() != null ? task.getDueDate() : now;
+        return skipMissed(advance(base, task.getRecurrenceRule()), task.getRecurrenceRule(), now);
+    }
+
+    /**
+     * The first slot of the series at or after now, jumping over the missed ones in one step
+     */
+    private LocalDateTime skipMissed(LocalDateTime dueAt, Task.RecurrenceRule rule, LocalDateTime now) {
+        if (!dueAt.isBefore(now)) {
+            return dueAt;
+        }
+        ChronoUnit unit = switch (rule) {
+            case DAILY -> ChronoUnit.DAYS;
+            case WEEKLY -> ChronoUnit.WEEKS;
+            case MONTHLY -> ChronoUnit.MONTHS;
+            default -> throw new IllegalArgumentException("Recurrence rule has no fixed interval: " + rule);
+        };
+        long missed = unit.between(dueAt, now);
+        LocalDateTime next = dueAt.plus(missed, unit);
+        while (next.isBefore(now)) {
+            next = next.plus(1, unit);
+            missed++;
+        }
+        skippedCounter.increment(missed);
+        return next;
+    }
+
+    private LocalDateTime advance(LocalDateTime from, Task.RecurrenceRule rule) {
+        return switch (rule) {
+            case DAILY -> from.plusDays(1);
+            case WEEKLY -> from.plusWeeks(1);
+            case MONTHLY -> from.plusMonths(1);
+            default -> throw new IllegalArgumentException("Recurrence rule has no fixed interval: " + rule);
+        };
+    }
+}
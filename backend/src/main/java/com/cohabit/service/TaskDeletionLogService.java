@@ -0,0 +1,55 @@
+package com.cohabit.service;
+
+import com.cohabit.model.TaskDeletion;
+import com.cohabit.repository.TaskDeletionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone log for deleted tasks, read by the task delta feed.
+ * Tombstones are kept for a retention window; cursors older than that must resync.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskDeletionLogService {
+
+    private final TaskDeletionRepository taskDeletionRepository;
+
+    @Value("${task-changes.tombstone-retention-days:30}")
+    private int retentionDays;
+
+    /**
+     * Record that a task was deleted. Must be called inside the deleting transaction.
+     */
+    public void record(Long householdId, Long taskId) {
+        TaskDeletion deletion = new TaskDeletion();
+        deletion.setHouseholdId(householdId);
+        deletion.setTaskId(taskId);
+        deletion.setDeletedAt(LocalDateTime.now());
+        taskDeletionRepository.save(deletion);
+    }
+
+    /**
+     * Oldest point a cursor may resume from and still see every tombstone after it
+     */
+    public LocalDateTime retentionCutoff() {
+        return LocalDateTime.now().minusDays(retentionDays);
+    }
+
+    @Scheduled(fixedDelayString = "${task-changes.purge-interval-ms:3600000}",
+               initialDelayString = "${task-changes.purge-initial-delay-ms:60000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = taskDeletionRepository.deleteOlderThan(retentionCutoff());
+        if (purged > 0) {
+            log.info("Purged {} task tombstones older than {} days", purged, retentionDays);
+        }
+    }
+}
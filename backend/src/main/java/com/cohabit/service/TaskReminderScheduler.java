@@ -0,0 +1,291 @@
+package com.cohabit.service;
+
+import com.cohabit.model.Task;
+import com.cohabit.util.HierarchicalTimingWheel;
+import com.cohabit.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes TASK_DUE notifications a fixed lead time before tasks fall due.
+ *
+ * Reminders for a sliding window of upcoming due dates live in a hierarchical timing wheel,
+ * so TaskService can add, move and cancel them in O(1) as tasks change. The tasks table is
+ * only read to extend the window, in keyset pages over idx_due_date, and memory is bounded by
+ * the window plus a cap on pending reminders. Fired reminders are written as one JDBC batch per
+ * tick; each row is re-checked against the task's current due date and status, and the
+ * unique_reminder key skips existing reminders, so stale or repeated entries never notify twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskReminderScheduler {
+
+    private static final String SELECT_UPCOMING_SQL =
+            "SELECT id, due_date FROM tasks " +
+            "WHERE due_date <= ? AND status IN ('OPEN', 'ASSIGNED', 'IN_PROGRESS') " +
+            "AND (due_date > ? OR (due_date = ? AND id > ?)) " +
+            "ORDER BY due_date, id LIMIT ?";
+
+    // Recipients: the task's active assignees, or every member when nobody is assigned.
+    // The due date matches to the second, rounded either way, since TIMESTAMP drops fractions.
+    // unique_reminder on the stored due date skips repeats, however often delivery retried
+    private static final String INSERT_REMINDER_SQL =
+            "INSERT IGNORE INTO notifications " +
+            "(user_id, household_id, type, title, message, related_task_id, scheduled_for, due_at) " +
+            "SELECT m.user_id, t.household_id, 'TASK_DUE', LEFT(CONCAT('Due soon: ', t.title), 200), " +
+            "       CONCAT('Due at ', DATE_FORMAT(t.due_date, '%Y-%m-%d %H:%i')), t.id, " +
+            "       t.due_date - INTERVAL ? MINUTE, t.due_date " +
+            "FROM tasks t JOIN members m ON m.household_id = t.household_id " +
+            "WHERE t.id = ? AND t.due_date BETWEEN ? AND ? + INTERVAL 1 SECOND " +
+            "AND t.status IN ('OPEN', 'ASSIGNED', 'IN_PROGRESS') " +
+            "AND (EXISTS (SELECT 1 FROM task_assignments ta WHERE ta.task_id = t.id " +
+            "             AND ta.assignee_user_id = m.user_id AND ta.status = 'ACTIVE') " +
+            "     OR NOT EXISTS (SELECT 1 FROM task_assignments ta WHERE ta.task_id = t.id AND ta.status = 'ACTIVE'))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reminders.lead-minutes:60}")
+    private long leadMinutes;
+
+    @Value("${reminders.window-hours:24}")
+    private long windowHours;
+
+    @Value("${reminders.refill-interval-minutes:15}")
+    private long refillIntervalMinutes;
+
+    @Value("${reminders.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${reminders.max-pending:1000000}")
+    private int maxPending;
+
+    @Value("${reminders.load-page-size:5000}")
+    private int loadPageSize;
+
+    @Value("${reminders.write-batch-size:500}")
+    private int writeBatchSize;
+
+    private record Reminder(Long taskId, LocalDateTime dueAt) {
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, HierarchicalTimingWheel.Entry<Reminder>> entriesByTask = new HashMap<>();
+    private HierarchicalTimingWheel<Reminder> wheel;
+
+    // Due dates up to (loadedUntil, loadedUntilId) are in the wheel; later ones are loaded by refills
+    private LocalDateTime loadedUntil;
+    private long loadedUntilId;
+
+    private ScheduledExecutorService executor;
+
+    private Counter firedCounter;
+    private Counter writtenCounter;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("TaskReminderScheduler disabled");
+            return;
+        }
+
+        // 64 slots x 4 levels spans 64^4 ticks, about 194 days at one-second ticks
+        wheel = new HierarchicalTimingWheel<>(tickMs, 64, 4, System.currentTimeMillis());
+        loadedUntil = LocalDateTime.now();
+        loadedUntilId = Long.MAX_VALUE;
+
+        firedCounter = meterRegistry.counter("reminders.fired");
+        writtenCounter = meterRegistry.counter("reminders.notifications.written");
+        meterRegistry.gauge("reminders.pending", entriesByTask, Map::size);
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "TaskReminderScheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.execute(this::refill);
+        executor.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::refill, refillIntervalMinutes, refillIntervalMinutes, TimeUnit.MINUTES);
+
+        log.info("TaskReminderScheduler started (lead {}min, window {}h, max {} pending)",
+                leadMinutes, windowHours, maxPending);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            log.info("TaskReminderScheduler shut down");
+        }
+    }
+
+    /**
+     * Add, move or cancel the task's reminder after the current transaction commits
+     */
+    public void onTaskChanged(Task task) {
+        Long taskId = task.getId();
+        // Whole seconds, as the TIMESTAMP column stores it
+        LocalDateTime dueAt = isOpen(task) && task.getDueDate() != null
+                ? task.getDueDate().truncatedTo(ChronoUnit.SECONDS) : null;
+        TransactionCallbacks.afterCommit(() -> reschedule(taskId, dueAt));
+    }
+
+    /**
+     * Cancel the task's reminder after the current transaction commits
+     */
+    public void onTaskDeleted(Long taskId) {
+        TransactionCallbacks.afterCommit(() -> reschedule(taskId, null));
+    }
+
+    private void reschedule(Long taskId, LocalDateTime dueAt) {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            HierarchicalTimingWheel.Entry<Reminder> existing = entriesByTask.remove(taskId);
+            if (existing != null) {
+                wheel.cancel(existing);
+            }
+            // Beyond the loaded window: the refill that reaches it will pick it up
+            if (dueAt != null && !dueAt.isAfter(loadedUntil) && dueAt.isAfter(LocalDateTime.now())) {
+                schedule(new Reminder(taskId, dueAt));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void tick() {
+        try {
+            List<Reminder> due;
+            lock.lock();
+            try {
+                due = wheel.advanceTo(System.currentTimeMillis());
+                for (Reminder reminder : due) {
+                    entriesByTask.remove(reminder.taskId());
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (!due.isEmpty()) {
+                firedCounter.increment(due.size());
+                write(due);
+            }
+        } catch (Exception e) {
+            log.error("Reminder tick failed", e);
+        }
+    }
+
+    private void write(List<Reminder> reminders) {
+        for (int from = 0; from < reminders.size(); from += writeBatchSize) {
+            List<Reminder> chunk = reminders.subList(from, Math.min(from + writeBatchSize, reminders.size()));
+            int[][] counts = jdbcTemplate.batchUpdate(INSERT_REMINDER_SQL, chunk, chunk.size(), (ps, reminder) -> {
+                Timestamp dueAt = Timestamp.valueOf(reminder.dueAt());
+                ps.setLong(1, leadMinutes);
+                ps.setLong(2, reminder.taskId());
+                ps.setTimestamp(3, dueAt);
+                ps.setTimestamp(4, dueAt);
+            });
+            long written = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    written += Math.max(count, 0);
+                }
+            }
+            writtenCounter.increment(written);
+        }
+        log.debug("Fired {} task reminders", reminders.size());
+    }
+
+    /**
+     * Extend the window to now + window-hours, page by page, until it is covered or the cap is hit
+     */
+    private void refill() {
+        try {
+            LocalDateTime target = LocalDateTime.now().plusHours(windowHours);
+            int loaded = 0;
+
+            while (true) {
+                lock.lock();
+                try {
+                    if (entriesByTask.size() >= maxPending) {
+                        log.warn("Reminder wheel is full ({} pending); window stops at {}", maxPending, loadedUntil);
+                        break;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                LocalDateTime after = loadedUntil;
+                long afterId = loadedUntilId;
+                List<Reminder> page = jdbcTemplate.query(SELECT_UPCOMING_SQL,
+                        (rs, rowNum) -> new Reminder(rs.getLong("id"), rs.getTimestamp("due_date").toLocalDateTime()),
+                        Timestamp.valueOf(target), Timestamp.valueOf(after), Timestamp.valueOf(after),
+                        afterId, loadPageSize);
+
+                lock.lock();
+                try {
+                    for (Reminder reminder : page) {
+                        // An entry placed by a task change is newer than this read
+                        if (!entriesByTask.containsKey(reminder.taskId())) {
+                            schedule(reminder);
+                            loaded++;
+                        }
+                    }
+                    if (page.size() < loadPageSize) {
+                        loadedUntil = target;
+                        loadedUntilId = Long.MAX_VALUE;
+                        break;
+                    }
+                    Reminder last = page.get(page.size() - 1);
+                    loadedUntil = last.dueAt();
+                    loadedUntilId = last.taskId();
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            if (loaded > 0) {
+                log.info("Loaded {} task reminders; window now reaches {}", loaded, loadedUntil);
+            }
+        } catch (Exception e) {
+            log.error("Reminder refill failed", e);
+        }
+    }
+
+    // Caller holds the lock
+    private void schedule(Reminder reminder) {
+        long fireAtMs = reminder.dueAt().minusMinutes(leadMinutes)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        entriesByTask.put(reminder.taskId(), wheel.schedule(reminder, fireAtMs));
+    }
+
+    private boolean isOpen(Task task) {
+        return task.getStatus() != Task.TaskStatus.COMPLETED && task.getStatus() != Task.TaskStatus.VERIFIED;
+    }
+}
@@ -0,0 +1,169 @@
+package com.cohabit.service;
+
+import com.cohabit.model.Task;
+import com.cohabit.repository.TaskRepository;
+import com.cohabit.util.TaskTextIndex;
+import com.cohabit.util.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Task search backed by one in-memory inverted index per household.
+ *
+ * An index is built from the database on the household's first search and then kept current
+ * by TaskService and the recurrence materializer, which report changes after their transaction
+ * commits. Indexes of households that stop searching are evicted when idle, or least recently
+ * used first once the estimated total size passes the memory budget.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskSearchService {
+
+    private final TaskRepository taskRepository;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${task-search.max-memory-mb:64}")
+    private long maxMemoryMb;
+
+    @Value("${task-search.idle-timeout-minutes:30}")
+    private long idleTimeoutMinutes;
+
+    private final Map<Long, HouseholdIndex> indexes = new ConcurrentHashMap<>();
+
+    private Timer searchTimer;
+    private TransactionTemplate loadTransaction;
+
+    private static final class HouseholdIndex {
+        final TaskTextIndex index = new TaskTextIndex();
+        // Tasks changed while the index was loading; the load must not overwrite them with older rows
+        final Set<Long> touchedDuringLoad = new HashSet<>();
+        volatile boolean loaded;
+        volatile long lastAccessNanos = System.nanoTime();
+    }
+
+    @PostConstruct
+    public void init() {
+        // Loads read in their own transaction, so the snapshot starts after the index is
+        // registered and every commit is either in the snapshot or applied as a change
+        loadTransaction = new TransactionTemplate(transactionManager);
+        loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        loadTransaction.setReadOnly(true);
+
+        searchTimer = meterRegistry.timer("task.search.duration");
+        meterRegistry.gaugeMapSize("task.search.indexes", List.of(), indexes);
+        meterRegistry.gauge("task.search.memory.bytes", indexes,
+                m -> m.values().stream().mapToLong(h -> h.index.estimatedBytes()).sum());
+    }
+
+    /**
+     * Ids of the household's tasks matching every word of the query (words match as prefixes),
+     * newest first
+     */
+    public List<Long> search(Long householdId, String query, int limit) {
+        HouseholdIndex household = indexes.computeIfAbsent(householdId, id -> new HouseholdIndex());
+        household.lastAccessNanos = System.nanoTime();
+        if (!household.loaded) {
+            load(householdId, household);
+        }
+        return searchTimer.record(() -> household.index.search(query, limit));
+    }
+
+    /**
+     * Index a created or edited task once the current transaction commits
+     */
+    public void onTaskSaved(Task task) {
+        Long householdId = task.getHousehold().getId();
+        Long taskId = task.getId();
+        String title = task.getTitle();
+        String description = task.getDescription();
+        TransactionCallbacks.afterCommit(() -> apply(householdId, taskId, household -> household.index.put(taskId, title, description)));
+    }
+
+    /**
+     * Drop a deleted task once the current transaction commits
+     */
+    public void onTaskDeleted(Long householdId, Long taskId) {
+        TransactionCallbacks.afterCommit(() -> apply(householdId, taskId, household -> household.index.remove(taskId)));
+    }
+
+    @Scheduled(fixedDelayString = "${task-search.sweep-interval-ms:30000}")
+    public void evict() {
+        // Step 1: Drop indexes nobody has searched recently
+        long idleCutoff = System.nanoTime() - TimeUnit.MINUTES.toNanos(idleTimeoutMinutes);
+        indexes.entrySet().removeIf(e -> e.getValue().lastAccessNanos < idleCutoff);
+
+        // Step 2: Still over budget: evict least recently used until it fits
+        long budget = maxMemoryMb * 1024 * 1024;
+        long total = indexes.values().stream().mapToLong(h -> h.index.estimatedBytes()).sum();
+        if (total <= budget) {
+            return;
+        }
+
+        List<Map.Entry<Long, HouseholdIndex>> byAge = new ArrayList<>(indexes.entrySet());
+        byAge.sort(Comparator.comparingLong(e -> e.getValue().lastAccessNanos));
+        int evicted = 0;
+        for (Map.Entry<Long, HouseholdIndex> entry : byAge) {
+            if (total <= budget) {
+                break;
+            }
+            if (indexes.remove(entry.getKey(), entry.getValue())) {
+                total -= entry.getValue().index.estimatedBytes();
+                evicted++;
+            }
+        }
+        log.info("Evicted {} task search indexes to stay under {} MB", evicted, maxMemoryMb);
+    }
+
+    private void load(Long householdId, HouseholdIndex household) {
+        synchronized (household) {
+            if (household.loaded) {
+                return;
+            }
+            long startTime = System.currentTimeMillis();
+            List<TaskRepository.TaskText> rows = loadTransaction.execute(
+                    status -> taskRepository.findTextByHouseholdId(householdId));
+            for (TaskRepository.TaskText row : rows) {
+                synchronized (household.touchedDuringLoad) {
+                    if (!household.touchedDuringLoad.contains(row.getId())) {
+                        household.index.put(row.getId(), row.getTitle(), row.getDescription());
+                    }
+                }
+            }
+            synchronized (household.touchedDuringLoad) {
+                household.touchedDuringLoad.clear();
+                household.loaded = true;
+            }
+            log.debug("Built task search index for household {} ({} tasks) in {}ms",
+                    householdId, rows.size(), System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private void apply(Long householdId, Long taskId, Consumer<HouseholdIndex> change) {
+        HouseholdIndex household = indexes.get(householdId);
+        if (household == null) {
+            return; // Not built yet; the first search will read the committed rows
+        }
+        synchronized (household.touchedDuringLoad) {
+            if (!household.loaded) {
+                household.touchedDuringLoad.add(taskId);
+            }
+            change.accept(household);
+        }
+    }
+}
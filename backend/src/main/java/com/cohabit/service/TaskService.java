@@ -1,18 +1,38 @@
 package com.cohabit.service;
 
+import com.cohabit.dto.BatchCreateTaskResponse;
 import com.cohabit.dto.CreateTaskRequest;
+import com.cohabit.dto.TaskChangesResponse;
+import com.cohabit.dto.TaskPageResponse;
 import com.cohabit.dto.UpdateTaskRequest;
 import com.cohabit.dto.TaskResponse;
 import com.cohabit.exception.*;
 import com.cohabit.model.*;
 import com.cohabit.repository.*;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +46,44 @@ public class TaskService {
     private final UserRepository userRepository;
     private final HouseholdMemberRepository householdMemberRepository;
     private final HouseholdRepository householdRepository;
+    private final TaskDeletionRepository taskDeletionRepository;
+    private final RecurringTaskMaterializer recurringTaskMaterializer;
+    private final HouseholdVersionService householdVersionService;
+    private final TaskDeletionLogService taskDeletionLogService;
+    private final HouseholdEventBroadcaster householdEventBroadcaster;
+    private final TaskSearchService taskSearchService;
+    private final TaskReminderScheduler taskReminderScheduler;
+    private final UserStatsService userStatsService;
+    private final GlobalLeaderboardService globalLeaderboardService;
+    private final PlatformTransactionManager transactionManager;
+
+    private static final List<Task.TaskStatus> COMPLETED_STATUSES =
+            List.of(Task.TaskStatus.COMPLETED, Task.TaskStatus.VERIFIED);
+    private static final List<Task.TaskStatus> OPEN_STATUSES =
+            List.of(Task.TaskStatus.OPEN, Task.TaskStatus.ASSIGNED, Task.TaskStatus.IN_PROGRESS);
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    private static final LocalDateTime FEED_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Changes newer than this are held back until in-flight transactions that stamped
+    // an earlier updated_at have had time to commit. A transaction that commits more than
+    // settle-ms after stamping a row can be skipped by a client that synced in between, so
+    // long writers (batch create, materializer chunks) re-stamp their rows just before commit.
+    @Value("${task-changes.settle-ms:2000}")
+    private long changeSettleMs;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
 
     @Transactional(readOnly = true)
     public List<TaskResponse> getAllTasksForUserHousehold(Long userId) {
@@ -40,13 +98,255 @@ public class TaskService {
 
         Household household = membership.getHousehold();
 
-        // Step 3: Get all tasks for the household
-        List<Task> tasks = taskRepository.findByHousehold(household);
+        // Step 3: Get all tasks for the household with creators in one query
+        List<Task> tasks = taskRepository.findByHouseholdIdWithCreator(household.getId());
 
-        // Step 4: Build response for each task
-        return tasks.stream()
-                .map(this::buildTaskResponse)
-                .collect(Collectors.toList());
+        // Step 4: Build responses with a constant number of queries
+        return buildTaskResponses(tasks, household);
+    }
+
+    /**
+     * Keyset-paginated task listing, ordered by (updatedAt, id) descending.
+     * Filters are optional; the cursor comes from the previous page's nextCursor.
+     */
+    @Transactional(readOnly = true)
+    public TaskPageResponse getTaskPage(Long userId, String status, Long assigneeId,
+                                        LocalDateTime dueFrom, LocalDateTime dueTo,
+                                        String cursor, Integer limit) {
+        // Step 1: Validate user exists
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+
+        // Step 2: Get user's household
+        HouseholdMember membership = householdMemberRepository.findByUser(user)
+                .orElseThrow(() -> new NotInHouseholdException(
+                        "You must be in a household to view tasks"));
+
+        Household household = membership.getHousehold();
+
+        // Step 3: Parse filters and cursor
+        Task.TaskStatus statusFilter = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                statusFilter = Task.TaskStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                        "Invalid status: " + status +
+                        ". Must be one of: OPEN, ASSIGNED, IN_PROGRESS, COMPLETED, VERIFIED");
+            }
+        }
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        LocalDateTime cursorUpdatedAt = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            cursorUpdatedAt = LocalDateTime.parse(parts[0]);
+            cursorId = Long.parseLong(parts[1]);
+        }
+
+        // Step 4: Fetch one extra row to know whether another page exists
+        List<Task> tasks = taskRepository.findPageByHouseholdId(
+                household.getId(), statusFilter, assigneeId, dueFrom, dueTo,
+                cursorUpdatedAt, cursorId, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = tasks.size() > pageSize;
+        if (hasMore) {
+            tasks = tasks.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Task last = tasks.get(tasks.size() - 1);
+            nextCursor = encodeCursor(last.getUpdatedAt(), last.getId());
+        }
+
+        // Step 5: Build responses for this page only
+        return TaskPageResponse.builder()
+                .tasks(buildTaskResponses(tasks, household))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private String encodeCursor(LocalDateTime updatedAt, Long id) {
+        String raw = updatedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Search the household's tasks by title and description.
+     * Matching runs against the in-memory index; only the hits are loaded from the database.
+     * Not transactional as a whole: a cold index loads in its own transaction, so the index is
+     * searched before the read-only transaction that loads the hits opens, and a request never
+     * holds two connections.
+     */
+    public List<TaskResponse> searchTasks(Long userId, String query, Integer limit) {
+        // Step 1: Find the user's household without loading any entities
+        Optional<HouseholdMemberRepository.HouseholdVersion> membership =
+                householdMemberRepository.findHouseholdVersionByUserId(userId);
+        if (membership.isEmpty()) {
+            if (!userRepository.existsById(userId)) {
+                throw new UserNotFoundException("User not found");
+            }
+            throw new NotInHouseholdException("You must be in a household to search tasks");
+        }
+        Long householdId = membership.get().getHouseholdId();
+
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+
+        // Step 2: Match against the index, newest first
+        int maxResults = limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        List<Long> ids = taskSearchService.search(householdId, query, maxResults);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Step 3: Load the hits and keep the index's order
+        return readOnlyTransaction.execute(status -> {
+            Household household = householdRepository.findById(householdId)
+                    .orElseThrow(() -> new HouseholdNotFoundException("Household not found"));
+            Map<Long, Task> tasksById = taskRepository.findByIdsWithCreator(ids).stream()
+                    .filter(t -> t.getHousehold().getId().equals(householdId))
+                    .collect(Collectors.toMap(Task::getId, t -> t));
+            List<Task> tasks = ids.stream()
+                    .map(tasksById::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+
+            return buildTaskResponses(tasks, household);
+        });
+    }
+
+    /**
+     * Delta feed: tasks created or changed and tasks deleted since the cursor.
+     * Tasks are read by (updatedAt, id) and tombstones by (deletedAt, id), each as its own keyset,
+     * so a sync costs what changed rather than the size of the household. Upserts carry the
+     * task's current assignees, so assignment changes arrive with their task.
+     */
+    @Transactional(readOnly = true)
+    public TaskChangesResponse getTaskChanges(Long userId, String since, Integer limit) {
+        // Step 1: Validate user exists
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+
+        // Step 2: Get user's household
+        HouseholdMember membership = householdMemberRepository.findByUser(user)
+                .orElseThrow(() -> new NotInHouseholdException(
+                        "You must be in a household to view tasks"));
+
+        Household household = membership.getHousehold();
+
+        // Step 3: Resolve the cursor. No cursor means a first sync: every task, no tombstones.
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime horizon = LocalDateTime.now().minusNanos(changeSettleMs * 1_000_000L);
+
+        ChangeCursor cursor;
+        if (since == null || since.isBlank()) {
+            cursor = new ChangeCursor(household.getId(), FEED_START, 0L, horizon, Long.MAX_VALUE);
+        } else {
+            cursor = ChangeCursor.decode(since);
+            if (!cursor.householdId().equals(household.getId())
+                    || cursor.deletedAt().isBefore(taskDeletionLogService.retentionCutoff())) {
+                // Tombstones this client still needs may be gone (or it switched households)
+                return TaskChangesResponse.builder()
+                        .upserts(List.of())
+                        .deletedTaskIds(List.of())
+                        .resyncRequired(true)
+                        .build();
+            }
+        }
+
+        // Step 4: Fetch one extra row of each stream to know whether more is ready
+        List<Task> changed = taskRepository.findChangesSince(household.getId(),
+                cursor.updatedAt(), cursor.taskId(), horizon, PageRequest.of(0, pageSize + 1));
+        List<TaskDeletion> deletions = taskDeletionRepository.findChangesSince(household.getId(),
+                cursor.deletedAt(), cursor.deletionId(), horizon, PageRequest.of(0, pageSize + 1));
+
+        boolean moreChanged = changed.size() > pageSize;
+        boolean moreDeleted = deletions.size() > pageSize;
+        if (moreChanged) {
+            changed = changed.subList(0, pageSize);
+        }
+        if (moreDeleted) {
+            deletions = deletions.subList(0, pageSize);
+        }
+
+        // Step 5: Advance each stream. A drained stream jumps to the horizon, so idle
+        // households keep a fresh cursor and do not fall behind tombstone retention.
+        LocalDateTime nextUpdatedAt = horizon;
+        long nextTaskId = Long.MAX_VALUE;
+        if (moreChanged) {
+            Task last = changed.get(changed.size() - 1);
+            nextUpdatedAt = last.getUpdatedAt();
+            nextTaskId = last.getId();
+        }
+
+        LocalDateTime nextDeletedAt = horizon;
+        long nextDeletionId = Long.MAX_VALUE;
+        if (moreDeleted) {
+            TaskDeletion last = deletions.get(deletions.size() - 1);
+            nextDeletedAt = last.getDeletedAt();
+            nextDeletionId = last.getId();
+        }
+
+        ChangeCursor next = new ChangeCursor(household.getId(),
+                nextUpdatedAt, nextTaskId, nextDeletedAt, nextDeletionId);
+
+        return TaskChangesResponse.builder()
+                .upserts(buildTaskResponses(changed, household))
+                .deletedTaskIds(deletions.stream()
+                        .map(TaskDeletion::getTaskId)
+                        .collect(Collectors.toList()))
+                .nextCursor(next.encode())
+                .hasMore(moreChanged || moreDeleted)
+                .resyncRequired(false)
+                .build();
+    }
+
+    // Position in both change streams, opaque to clients (base64url)
+    private record ChangeCursor(Long householdId, LocalDateTime updatedAt, Long taskId,
+                                LocalDateTime deletedAt, Long deletionId) {
+
+        String encode() {
+            String raw = householdId + "|" + updatedAt + "|" + taskId + "|" + deletedAt + "|" + deletionId;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static ChangeCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|");
+                if (parts.length != 5) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new ChangeCursor(Long.parseLong(parts[0]),
+                        LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]),
+                        LocalDateTime.parse(parts[3]), Long.parseLong(parts[4]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
     }
 
     @Transactional
@@ -63,7 +363,139 @@ public class TaskService {
         // Step 3: Get user's household
         Household household = membership.getHousehold();
 
-        // Step 4: Validate recurrence rule
+        // Step 4: Validate the request and build the task entity
+        PreparedTask prepared = prepareTask(request, user, household);
+
+        // Step 5: Validate all assignees are in the same household (one query for all of them)
+        validateAssignees(household.getId(), prepared.assigneeIds());
+
+        Task savedTask = taskRepository.save(prepared.task());
+        log.info("Created task {} for household {} with {} XP", 
+                savedTask.getId(), household.getId(), savedTask.getXpPoints());
+
+        // Step 6: Create task assignments in a single JDBC batch
+        taskAssignmentRepository.batchInsertActive(savedTask.getId(), prepared.assigneeIds());
+        log.info("Assigned task {} to users {}", savedTask.getId(), prepared.assigneeIds());
+
+        // Step 7: Start the recurring series so upcoming occurrences get generated
+        if (RecurringTaskMaterializer.isMaterializable(savedTask.getRecurrenceRule())) {
+            recurringTaskMaterializer.registerSeries(savedTask);
+        }
+        householdVersionService.bump(household.getId());
+        householdEventBroadcaster.publish(household.getId(), "task.created", List.of(savedTask.getId()), userId);
+        taskSearchService.onTaskSaved(savedTask);
+        taskReminderScheduler.onTaskChanged(savedTask);
+
+        // Step 8: Build and return task response
+        return buildTaskResponse(savedTask);
+    }
+
+    /**
+     * Create many tasks at once.
+     * The requester and membership are validated once, all assignees are resolved with one query,
+     * and tasks and assignments are inserted in JDBC batches within this transaction.
+     * Items that fail validation are reported individually and skipped.
+     */
+    @Transactional
+    public BatchCreateTaskResponse createTasks(List<CreateTaskRequest> requests, Long userId) {
+        // Step 1: Validate user exists
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+
+        // Step 2: Validate user is in a household
+        HouseholdMember membership = householdMemberRepository.findByUser(user)
+                .orElseThrow(() -> new NotInHouseholdException(
+                        "You must be in a household to create tasks"));
+
+        Household household = membership.getHousehold();
+
+        // Step 3: Validate each item on its own (no queries)
+        BatchCreateTaskResponse.ItemResult[] results = new BatchCreateTaskResponse.ItemResult[requests.size()];
+        Map<Integer, PreparedTask> preparedByIndex = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                preparedByIndex.put(i, prepareTask(requests.get(i), user, household));
+            } catch (IllegalArgumentException | InvalidTaskAssignmentException e) {
+                results[i] = BatchCreateTaskResponse.ItemResult.failure(i, e.getMessage());
+            }
+        }
+
+        // Step 4: Resolve every assignee across the batch with one membership query
+        Set<Long> allAssigneeIds = preparedByIndex.values().stream()
+                .flatMap(p -> p.assigneeIds().stream())
+                .collect(Collectors.toSet());
+        Set<Long> memberIds = allAssigneeIds.isEmpty() ? Set.of() : new HashSet<>(
+                householdMemberRepository.findMemberUserIds(household.getId(), allAssigneeIds));
+
+        preparedByIndex.entrySet().removeIf(entry -> {
+            List<Long> invalidIds = entry.getValue().assigneeIds().stream()
+                    .filter(id -> !memberIds.contains(id))
+                    .collect(Collectors.toList());
+            if (invalidIds.isEmpty()) {
+                return false;
+            }
+            results[entry.getKey()] = BatchCreateTaskResponse.ItemResult.failure(entry.getKey(),
+                    "All assignees must be members of your household. Invalid user IDs: " + invalidIds);
+            return true;
+        });
+
+        // Step 5: Insert tasks, then assignments, as JDBC batches
+        List<PreparedTask> toInsert = new ArrayList<>(preparedByIndex.values());
+        List<Long> taskIds = taskRepository.batchInsert(toInsert.stream()
+                .map(PreparedTask::task)
+                .collect(Collectors.toList()));
+
+        Map<Long, Collection<Long>> assigneesByTask = new LinkedHashMap<>();
+        for (int i = 0; i < toInsert.size(); i++) {
+            assigneesByTask.put(taskIds.get(i), toInsert.get(i).assigneeIds());
+        }
+        taskAssignmentRepository.batchInsertActive(assigneesByTask);
+
+        // Step 6: Load what was inserted and build responses with a constant query count
+        List<Task> createdTasks = taskIds.isEmpty() ? List.of() : taskRepository.findByIdsWithCreator(taskIds);
+        Map<Long, TaskResponse> responsesById = buildTaskResponses(createdTasks, household).stream()
+                .collect(Collectors.toMap(TaskResponse::getId, r -> r));
+
+        // Step 7: Start recurring series for the new recurring tasks
+        createdTasks.stream()
+                .filter(t -> RecurringTaskMaterializer.isMaterializable(t.getRecurrenceRule()))
+                .forEach(recurringTaskMaterializer::registerSeries);
+
+        int index = 0;
+        for (Integer itemIndex : preparedByIndex.keySet()) {
+            results[itemIndex] = BatchCreateTaskResponse.ItemResult.success(
+                    itemIndex, responsesById.get(taskIds.get(index++)));
+        }
+
+        if (!taskIds.isEmpty()) {
+            householdVersionService.bump(household.getId());
+            householdEventBroadcaster.publish(household.getId(), "task.created", taskIds, userId);
+            createdTasks.forEach(taskSearchService::onTaskSaved);
+            createdTasks.forEach(taskReminderScheduler::onTaskChanged);
+
+            // Last statement: the delta feed must not see these rows as older than the commit
+            taskRepository.touchUpdatedAt(taskIds, LocalDateTime.now());
+        }
+
+        log.info("Batch created {} of {} tasks for household {}",
+                taskIds.size(), requests.size(), household.getId());
+
+        return BatchCreateTaskResponse.builder()
+                .created(taskIds.size())
+                .failed(requests.size() - taskIds.size())
+                .results(List.of(results))
+                .build();
+    }
+
+    private record PreparedTask(Task task, Set<Long> assigneeIds) {
+    }
+
+    /**
+     * Validate a create request and build the (unsaved) task entity.
+     * Does not touch the database; assignee membership is checked separately.
+     */
+    private PreparedTask prepareTask(CreateTaskRequest request, User user, Household household) {
+        // Validate recurrence rule
         Task.RecurrenceRule recurrenceRule;
         try {
             recurrenceRule = Task.RecurrenceRule.valueOf(
@@ -74,46 +506,31 @@ public class TaskService {
                     ". Must be one of: NONE, DAILY, WEEKLY, MONTHLY, CUSTOM");
         }
 
-        // Step 5: Handle assignee user IDs (default to creator if empty)
+        // Handle assignee user IDs (default to creator if empty)
         List<Long> assigneeIds = request.getAssigneeUserIds();
         if (assigneeIds == null || assigneeIds.isEmpty()) {
-            assigneeIds = List.of(userId); // Default to creator
+            assigneeIds = List.of(user.getId()); // Default to creator
         }
+        Set<Long> uniqueAssigneeIds = new LinkedHashSet<>(assigneeIds);
 
-        // Step 6: Validate all assignees are in the same household
-        for (Long assigneeId : assigneeIds) {
-            User assigneeUser = userRepository.findById(assigneeId)
-                    .orElseThrow(() -> new UserNotFoundException(
-                            "Assignee user not found: " + assigneeId));
-
-            HouseholdMember assigneeMembership = householdMemberRepository.findByUser(assigneeUser)
-                    .orElseThrow(() -> new InvalidTaskAssignmentException(
-                            "User " + assigneeId + " is not in any household"));
-
-            if (!assigneeMembership.getHousehold().getId().equals(household.getId())) {
-                throw new InvalidTaskAssignmentException(
-                        "All assignees must be members of your household");
-            }
-        }
-
-        // Step 7: Validate rotate assignments business rule
+        // Validate rotate assignments business rule
         if (request.getRotateAssignments() != null && request.getRotateAssignments()) {
             if (recurrenceRule == Task.RecurrenceRule.NONE) {
                 throw new InvalidTaskAssignmentException(
                         "Cannot rotate assignments for non-recurring tasks");
             }
-            if (assigneeIds.size() < 2) {
+            if (uniqueAssigneeIds.size() < 2) {
                 throw new InvalidTaskAssignmentException(
                         "Rotate assignments requires at least 2 assignees");
             }
         }
 
-        // Step 8: Validate and set difficulty with XP points
+        // Validate and set difficulty with XP points
         String difficulty = request.getDifficulty() != null ? 
                 request.getDifficulty().toUpperCase() : "MEDIUM";
         int xpPoints = calculateXpFromDifficulty(difficulty);
 
-        // Step 9: Create task entity
+        // Create task entity
         Task task = new Task();
         task.setHousehold(household);
         task.setTitle(request.getTitle());
@@ -129,25 +546,23 @@ public class TaskService {
         task.setXpPoints(xpPoints);
         task.setIsFreeForAll(false); // Not implementing this feature
 
-        Task savedTask = taskRepository.save(task);
-        log.info("Created task {} for household {} with {} XP", 
-                savedTask.getId(), household.getId(), xpPoints);
-
-        // Step 10: Create task assignment entities
-        for (Long assigneeId : assigneeIds) {
-            User assigneeUser = userRepository.getReferenceById(assigneeId);
-
-            TaskAssignment assignment = new TaskAssignment();
-            assignment.setTask(savedTask);
-            assignment.setAssignee(assigneeUser);
-            assignment.setStatus(TaskAssignment.AssignmentStatus.ACTIVE);
+        return new PreparedTask(task, uniqueAssigneeIds);
+    }
 
-            taskAssignmentRepository.save(assignment);
-            log.info("Assigned task {} to user {}", savedTask.getId(), assigneeId);
+    /**
+     * Check that every assignee is a member of the household using one set-based query
+     */
+    private void validateAssignees(Long householdId, Set<Long> assigneeIds) {
+        Set<Long> memberIds = new HashSet<>(
+                householdMemberRepository.findMemberUserIds(householdId, assigneeIds));
+
+        if (memberIds.size() != assigneeIds.size()) {
+            List<Long> invalidIds = assigneeIds.stream()
+                    .filter(id -> !memberIds.contains(id))
+                    .collect(Collectors.toList());
+            throw new InvalidTaskAssignmentException(
+                    "All assignees must be members of your household. Invalid user IDs: " + invalidIds);
         }
-
-        // Step 11: Build and return task response
-        return buildTaskResponse(savedTask);
     }
 
     /**
@@ -178,6 +593,8 @@ public class TaskService {
                     "You can only edit tasks in your household");
         }
 
+        boolean wasRecurring = RecurringTaskMaterializer.isMaterializable(task.getRecurrenceRule());
+
         if (request.getTitle() != null && !request.getTitle().isBlank()) {
             task.setTitle(request.getTitle());
         }
@@ -215,6 +632,19 @@ public class TaskService {
         Task savedTask = taskRepository.save(task);
         log.info("Updated task {} by user {}", taskId, userId);
 
+        // Keep the recurring series in step with the new rule / due date
+        if (request.getRecurrenceRule() != null || request.getDueDate() != null) {
+            recurringTaskMaterializer.onTaskUpdated(savedTask, wasRecurring);
+        }
+        householdVersionService.bump(savedTask.getHousehold().getId());
+        householdEventBroadcaster.publish(savedTask.getHousehold().getId(), "task.updated", List.of(taskId), userId);
+        if (request.getTitle() != null || request.getDescription() != null) {
+            taskSearchService.onTaskSaved(savedTask);
+        }
+        if (request.getDueDate() != null) {
+            taskReminderScheduler.onTaskChanged(savedTask);
+        }
+
         return buildTaskResponse(savedTask);
     }
 
@@ -238,49 +668,61 @@ public class TaskService {
                     "You can only toggle tasks in your household");
         }
 
-        // Step 4: Toggle the status
+        // Step 4: Toggle the status with conditional updates, so concurrent toggles
+        // cannot both complete (or both reopen) the task
         boolean wasCompleted = task.getStatus() == Task.TaskStatus.COMPLETED ||
                                task.getStatus() == Task.TaskStatus.VERIFIED;
-        
+        int xpPoints = task.getXpPoints();
+
         if (wasCompleted) {
             // UNCOMPLETING TASK - Remove XP
-            task.setStatus(Task.TaskStatus.OPEN);
-            
-            // Find and remove task completion record
-            Optional<TaskCompletion> completion = taskCompletionRepository
-                    .findByTaskAndCompletedBy(task, user);
-            
-            if (completion.isPresent()) {
-                int xpToRemove = completion.get().getXpAwarded();
-                user.addXp(-xpToRemove); // Subtract XP
-                userRepository.save(user);
-                taskCompletionRepository.delete(completion.get());
-                log.info("Task {} unmarked, removed {} XP from user {}", 
-                        taskId, xpToRemove, userId);
+            int reopened = taskRepository.updateStatusIfIn(taskId, Task.TaskStatus.OPEN,
+                    COMPLETED_STATUSES, LocalDateTime.now());
+
+            if (reopened == 1) {
+                // Find and remove task completion record
+                Optional<TaskCompletion> completion = taskCompletionRepository
+                        .findByTaskAndCompletedBy(task, user);
+
+                // Only the request that actually deletes the row takes the XP back
+                if (completion.isPresent()
+                        && taskCompletionRepository.deleteByIdReturningCount(completion.get().getId()) == 1) {
+                    int xpToRemove = completion.get().getXpAwarded();
+                    userRepository.addXp(userId, -xpToRemove);
+                    globalLeaderboardService.onXpChanged(user, membership.getHousehold().getId());
+                    userStatsService.reverseCompletion(userId, membership.getHousehold().getId(),
+                            xpToRemove, completion.get().getCompletedAt());
+                    log.info("Task {} unmarked, removed {} XP from user {}", 
+                            taskId, xpToRemove, userId);
+                }
             }
             
             log.info("Task {} marked as OPEN by user {}", taskId, userId);
         } else {
             // COMPLETING TASK - Award XP
-            task.setStatus(Task.TaskStatus.COMPLETED);
-            
-            // Create task completion record
-            TaskCompletion completion = new TaskCompletion();
-            completion.setTask(task);
-            completion.setCompletedBy(user);
-            completion.setXpAwarded(task.getXpPoints());
-            completion.setVerificationStatus("AUTO_APPROVED");
-            taskCompletionRepository.save(completion);
-            
-            // Award XP to user
-            user.addXp(task.getXpPoints());
-            userRepository.save(user);
-            
-            log.info("Task {} marked as COMPLETED by user {}, awarded {} XP (new total: {} XP, level {})", 
-                    taskId, userId, task.getXpPoints(), user.getTotalXp(), user.getLevel());
+            int completed = taskRepository.updateStatusIfIn(taskId, Task.TaskStatus.COMPLETED,
+                    OPEN_STATUSES, LocalDateTime.now());
+
+            // Create task completion record; the unique key stops a double toggle awarding twice
+            if (completed == 1 && taskCompletionRepository.insertIfAbsent(
+                    taskId, userId, xpPoints, LocalDateTime.now()) == 1) {
+                // Award XP to user
+                userRepository.addXp(userId, xpPoints);
+                globalLeaderboardService.onXpChanged(user, membership.getHousehold().getId());
+                userStatsService.recordCompletion(userId, membership.getHousehold().getId(), xpPoints);
+
+                log.info("Task {} marked as COMPLETED by user {}, awarded {} XP", 
+                        taskId, userId, xpPoints);
+            }
         }
+        householdVersionService.bump(membership.getHousehold().getId());
+        householdEventBroadcaster.publish(membership.getHousehold().getId(), "task.toggled", List.of(taskId), userId);
 
-        Task savedTask = taskRepository.save(task);
+        Task savedTask = taskRepository.findById(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
+
+        // Completing cancels the due reminder; reopening brings it back
+        taskReminderScheduler.onTaskChanged(savedTask);
 
         // Step 5: Return updated task response
         return buildTaskResponse(savedTask);
@@ -292,8 +734,8 @@ public class TaskService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
 
-        // Step 2: Validate task exists
-        Task task = taskRepository.findById(taskId)
+        // Step 2: Validate task exists, locking it against concurrent toggles
+        Task task = taskRepository.findByIdForUpdate(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
 
         // Step 3: Validate user is in the task's household
@@ -306,33 +748,65 @@ public class TaskService {
                     "You can only delete tasks in your household");
         }
 
-        // Step 4: Delete all task completions (and remove XP from users)
-        List<TaskCompletion> completions = taskCompletionRepository.findByTask(task);
-        for (TaskCompletion completion : completions) {
-            User completedByUser = completion.getCompletedBy();
-            if (completedByUser != null && completion.getXpAwarded() != null) {
-                // Remove XP that was awarded for completing this task
-                completedByUser.addXp(-completion.getXpAwarded());
-                userRepository.save(completedByUser);
-                log.info("Removed {} XP from user {} due to task deletion", 
-                        completion.getXpAwarded(), completedByUser.getId());
-            }
+        // Step 4: Take back completion XP from every completer, aggregated per user in one statement
+        int usersAdjusted = userRepository.removeCompletionXpForTask(taskId);
+        if (usersAdjusted > 0) {
+            userRepository.refreshLevelsForTaskCompleters(taskId);
+            userStatsService.removeTaskCompletions(membership.getHousehold().getId(), taskId);
+            globalLeaderboardService.requestRebuild();
+            log.info("Removed completion XP from {} users due to deletion of task {}", usersAdjusted, taskId);
         }
-        taskCompletionRepository.deleteAll(completions);
 
-        // Step 5: Delete all task assignments (cascade should handle this, but being explicit)
-        taskAssignmentRepository.deleteByTask(task);
+        // Step 5: Move a series headed by this task back to its previous occurrence
+        recurringTaskMaterializer.onTaskDeleting(task);
+
+        // Step 6: Bulk delete completions and assignments, then the task itself
+        taskCompletionRepository.deleteAllByTaskId(taskId);
+        taskAssignmentRepository.deleteAllByTaskId(taskId);
+        taskRepository.deleteByIdBulk(taskId);
 
-        // Step 6: Delete the task itself
-        taskRepository.delete(task);
+        // Step 7: Leave a tombstone for the delta feed
+        taskDeletionLogService.record(membership.getHousehold().getId(), taskId);
+        householdVersionService.bump(membership.getHousehold().getId());
+        householdEventBroadcaster.publish(membership.getHousehold().getId(), "task.deleted", List.of(taskId), userId);
+        taskSearchService.onTaskDeleted(membership.getHousehold().getId(), taskId);
+        taskReminderScheduler.onTaskDeleted(taskId);
         log.info("Deleted task {} by user {}", taskId, userId);
     }
 
+    /**
+     * Build responses for many tasks of one household.
+     * Active assignees for all tasks are loaded in a single query and grouped in memory.
+     */
+    private List<TaskResponse> buildTaskResponses(List<Task> tasks, Household household) {
+        if (tasks.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> taskIds = tasks.stream()
+                .map(Task::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<TaskAssignment>> assignmentsByTask = taskAssignmentRepository
+                .findByTaskIdsAndStatusWithUser(taskIds, TaskAssignment.AssignmentStatus.ACTIVE)
+                .stream()
+                .collect(Collectors.groupingBy(a -> a.getTask().getId()));
+
+        return tasks.stream()
+                .map(task -> buildTaskResponse(task, household,
+                        assignmentsByTask.getOrDefault(task.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
     private TaskResponse buildTaskResponse(Task task) {
         // Eagerly load assignments with assignee details
         List<TaskAssignment> assignments = taskAssignmentRepository
                 .findByTaskIdAndStatusWithUser(task.getId(), TaskAssignment.AssignmentStatus.ACTIVE);
 
+        return buildTaskResponse(task, task.getHousehold(), assignments);
+    }
+
+    private TaskResponse buildTaskResponse(Task task, Household household, List<TaskAssignment> assignments) {
         List<TaskResponse.AssigneeInfo> assigneeInfos = assignments.stream()
                 .map(a -> TaskResponse.AssigneeInfo.builder()
                         .userId(a.getAssignee().getId())
@@ -345,8 +819,8 @@ public class TaskService {
 
         return TaskResponse.builder()
                 .id(task.getId())
-                .householdId(task.getHousehold().getId())
-                .householdName(task.getHousehold().getName())
+                .householdId(household.getId())
+                .householdName(household.getName())
                 .title(task.getTitle())
                 .description(task.getDescription())
                 .difficulty(task.getDifficulty())
@@ -5,7 +5,6 @@ import com.cohabit.exception.UsernameAlreadyExistsException;
 import com.cohabit.model.User;
 import com.cohabit.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,7 +18,13 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private HouseholdVersionService householdVersionService;
+
+    @Autowired
+    private HouseholdResponseCache householdResponseCache;
 
     public List<User> getAllUsers() {
         return userRepository.findAll();
@@ -34,12 +39,12 @@ public class UserService {
         return userRepository.findByUsername(username);
     }
 
-    @Transactional
+    // Not @Transactional: BCrypt runs before the insert takes a connection, and save() commits on its own
     public User createUser(User user) {
         if (userRepository.existsByUsername(user.getUsername())) {
             throw new UsernameAlreadyExistsException("Username already taken: " + user.getUsername());
         }
-        user.setPasswordHash(passwordEncoder.encode(user.getPasswordHash()));
+        user.setPasswordHash(passwordHashingService.encode(user.getPasswordHash()));
         return userRepository.save(user);
     }
 
@@ -57,19 +62,23 @@ public class UserService {
             user.setLevel(updatedUser.getLevel());
         }
 
+        householdVersionService.bumpForUser(id);
+        householdResponseCache.invalidateForUser(id);
         return userRepository.save(user);
     }
 
-    @Transactional
+    // Not @Transactional: both hashes run first, then one UPDATE writes only the password column
     public User changePassword(Long userId, String currentPassword, String newPassword) {
         User user = getUserById(userId);
 
-        if (!passwordEncoder.matches(currentPassword, user.getPasswordHash())) {
+        if (!passwordHashingService.matches(currentPassword, user.getPasswordHash())) {
             throw new IllegalArgumentException("Current password is incorrect");
         }
 
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
-        return userRepository.save(user);
+        String passwordHash = passwordHashingService.encode(newPassword);
+        userRepository.updatePasswordHash(userId, passwordHash);
+        user.setPasswordHash(passwordHash);
+        return user;
     }
 
     @Transactional
@@ -81,6 +90,8 @@ public class UserService {
         }
 
         user.setUsername(newUsername);
+        householdVersionService.bumpForUser(userId);
+        householdResponseCache.invalidateForUser(userId);
         return userRepository.save(user);
     }
 
@@ -88,16 +99,19 @@ public class UserService {
     public User changeDisplayName(Long userId, String newDisplayName) {
         User user = getUserById(userId);
         user.setDisplayName(newDisplayName);
+        householdVersionService.bumpForUser(userId);
+        householdResponseCache.invalidateForUser(userId);
         return userRepository.save(user);
     }
 
     @Transactional
     public void deleteUser(Long id) {
         User user = getUserById(id);
+        householdResponseCache.invalidateForUser(id);
         userRepository.delete(user);
     }
 
     public boolean validatePassword(User user, String password) {
-        return passwordEncoder.matches(password, user.getPasswordHash());
+        return passwordHashingService.matches(password, user.getPasswordHash());
     }
 }
@@ -0,0 +1,211 @@
+package com.cohabit.service;
+
+import com.cohabit.repository.UserStatsRepository;
+import com.cohabit.repository.UserXpDailyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps user_stats, the materialized per-household leaderboard, in step with task completions.
+ *
+ * TaskService applies each completion, reversal and task deletion as an atomic increment inside
+ * its own transaction. A reconciliation job rebuilds the table from task_completions a chunk of
+ * households at a time, which repairs any drift, rolls the weekly counters over and fills in
+ * completion_rate and is_top_performer. It runs on one instance per lease, and only households
+ * whose rows changed get a version bump and lose their ranking.
+ *
+ * Each completion also lands in a per-day XP bucket (user_xp_daily). Weekly, monthly and
+ * rolling-day leaderboards sum those buckets, so they never read task_completions; buckets
+ * older than the retention window are purged in the background.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserStatsService {
+
+    private final UserStatsRepository userStatsRepository;
+    private final UserXpDailyRepository userXpDailyRepository;
+    private final HouseholdVersionService householdVersionService;
+    private final HouseholdRankingService householdRankingService;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String RECONCILE_JOB = "user_stats_reconcile";
+    private static final String INSTANCE_NAME = ManagementFactory.getRuntimeMXBean().getName();
+
+    private static final String CREATE_LEASE_SQL =
+            "INSERT IGNORE INTO job_leases (name, locked_until) VALUES (?, NOW())";
+
+    private static final String ACQUIRE_LEASE_SQL =
+            "UPDATE job_leases SET locked_until = NOW() + INTERVAL ? SECOND, locked_by = ? " +
+            "WHERE name = ? AND locked_until <= NOW()";
+
+    @Value("${user-stats.reconcile.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${user-stats.reconcile.lease-seconds:3000}")
+    private long leaseSeconds;
+
+    @Value("${user-stats.daily.retention-days:92}")
+    private int dailyRetentionDays;
+
+    @Value("${user-stats.daily.purge-batch-size:5000}")
+    private int purgeBatchSize;
+
+    /**
+     * Count a completion. Must be called inside the completing transaction.
+     */
+    public void recordCompletion(Long userId, Long householdId, int xp) {
+        LocalDate today = LocalDate.now();
+        userStatsRepository.recordCompletion(userId, householdId, xp, weekStart(today));
+        userXpDailyRepository.recordCompletion(householdId, userId, today, xp);
+        householdRankingService.onStatsChanged(householdId, userId);
+    }
+
+    /**
+     * Take back a completion made at completedAt. Must be called inside the reopening transaction.
+     */
+    public void reverseCompletion(Long userId, Long householdId, int xp, LocalDateTime completedAt) {
+        LocalDate completionWeek = completedAt != null ? weekStart(completedAt.toLocalDate()) : null;
+        if (completedAt != null) {
+            userXpDailyRepository.reverseCompletion(householdId, userId, completedAt.toLocalDate(), xp);
+        }
+        if (userStatsRepository.reverseCompletion(userId, householdId, xp, completionWeek) == 1) {
+            householdRankingService.onStatsChanged(householdId, userId);
+        }
+    }
+
+    /**
+     * Take back every completion of a task. Must run in the deleting transaction, before the completions are deleted.
+     */
+    public void removeTaskCompletions(Long householdId, Long taskId) {
+        userXpDailyRepository.removeTaskCompletions(householdId, taskId);
+        if (userStatsRepository.removeTaskCompletions(householdId, taskId, weekStart(LocalDate.now())) > 0) {
+            householdRankingService.invalidate(householdId);
+        }
+    }
+
+    /**
+     * Build the row of a member who just joined, from any completions they already have in the household
+     */
+    public void onMemberJoined(Long householdId) {
+        userStatsRepository.rebuildForHouseholds(List.of(householdId), weekStart(LocalDate.now()));
+        householdRankingService.invalidate(householdId);
+    }
+
+    public void onMemberLeft(Long userId, Long householdId) {
+        userStatsRepository.deleteByUserIdAndHouseholdId(userId, householdId);
+        householdRankingService.invalidate(householdId);
+    }
+
+    @Scheduled(fixedDelayString = "${user-stats.reconcile.interval-ms:3600000}",
+               initialDelayString = "${user-stats.reconcile.initial-delay-ms:10000}")
+    public void reconcile() {
+        // Step 1: Take the cluster-wide lease; another instance reconciled recently or is reconciling now
+        jdbcTemplate.update(CREATE_LEASE_SQL, RECONCILE_JOB);
+        if (jdbcTemplate.update(ACQUIRE_LEASE_SQL, leaseSeconds, INSTANCE_NAME, RECONCILE_JOB) == 0) {
+            log.debug("Skipping user stats reconciliation; the lease is held elsewhere");
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LocalDate weekStart = weekStart(LocalDate.now());
+        long afterId = 0;
+        int households = 0;
+        int changed = 0;
+
+        // Step 2: One short transaction per chunk, so row locks are held briefly and completions keep flowing
+        while (true) {
+            List<Long> chunk = userStatsRepository.findHouseholdIdsAfter(afterId, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            Integer chunkChanged = transactionTemplate.execute(status -> {
+                LocalDate fromDay = oldestRetainedDay();
+                Map<Long, String> before = checksums(chunk, fromDay);
+                userStatsRepository.deleteNonMembers(chunk);
+                userStatsRepository.rebuildForHouseholds(chunk, weekStart);
+                userXpDailyRepository.deleteForHouseholdsSince(chunk, fromDay);
+                userXpDailyRepository.rebuildForHouseholdsSince(chunk, fromDay);
+
+                // Only households whose rows actually moved lose their cached reads
+                Map<Long, String> after = checksums(chunk, fromDay);
+                List<Long> drifted = chunk.stream()
+                        .filter(id -> !Objects.equals(before.get(id), after.get(id)))
+                        .collect(Collectors.toList());
+                if (!drifted.isEmpty()) {
+                    householdVersionService.bumpAll(drifted);
+                    householdRankingService.invalidateAll(drifted);
+                }
+                return drifted.size();
+            });
+            households += chunk.size();
+            changed += chunkChanged != null ? chunkChanged : 0;
+            afterId = chunk.get(chunk.size() - 1);
+        }
+
+        log.info("Reconciled user stats for {} households ({} changed) in {}ms",
+                households, changed, System.currentTimeMillis() - startTime);
+    }
+
+    // Per household: user_stats checksum and daily bucket checksum, locking the rows until commit
+    private Map<Long, String> checksums(List<Long> householdIds, LocalDate fromDay) {
+        Map<Long, String> checksums = new HashMap<>();
+        for (UserStatsRepository.HouseholdChecksum row : userStatsRepository.lockChecksums(householdIds)) {
+            checksums.put(row.getHouseholdId(), row.getChecksum());
+        }
+        for (UserStatsRepository.HouseholdChecksum row : userXpDailyRepository.lockChecksumsSince(householdIds, fromDay)) {
+            checksums.merge(row.getHouseholdId(), "/" + row.getChecksum(), String::concat);
+        }
+        return checksums;
+    }
+
+    /**
+     * Earliest day whose XP bucket is kept; windowed leaderboards cannot reach further back
+     */
+    public LocalDate oldestRetainedDay() {
+        return LocalDate.now().minusDays(dailyRetentionDays - 1L);
+    }
+
+    /**
+     * Age out daily buckets that have slid out of every window, in small batches
+     */
+    @Scheduled(fixedDelayString = "${user-stats.daily.purge-interval-ms:3600000}",
+               initialDelayString = "${user-stats.daily.purge-initial-delay-ms:60000}")
+    public void purgeExpiredBuckets() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LocalDate cutoff = oldestRetainedDay();
+        int purged = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> userXpDailyRepository.deleteOlderThan(cutoff, purgeBatchSize));
+            purged += batch;
+        } while (batch == purgeBatchSize);
+
+        if (purged > 0) {
+            log.info("Purged {} daily XP buckets older than {}", purged, cutoff);
+        }
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
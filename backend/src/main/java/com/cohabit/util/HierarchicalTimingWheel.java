@@ -0,0 +1,197 @@
+package com.cohabit.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: O(1) schedule and cancel, with expiry work proportional to
+ * the number of ticks advanced plus the entries that fire or move down a level.
+ *
+ * Level 0 has one slot per tick; each higher level has slots wheelSize times wider.
+ * An entry sits in the lowest level whose span covers its delay and is moved down when
+ * the clock reaches its slot. Not thread-safe; callers synchronize.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final Bucket<T>[][] levels;
+    private final long[] slotSpans; // ticks covered by one slot of each level
+    private final long maxDelayTicks;
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * Handle returned by schedule, used to cancel the entry
+     */
+    public static final class Entry<T> {
+        private final T value;
+        private final long expiryTick;
+        private Entry<T> prev;
+        private Entry<T> next;
+        private Bucket<T> bucket;
+
+        private Entry(T value, long expiryTick) {
+            this.value = value;
+            this.expiryTick = expiryTick;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public boolean isScheduled() {
+            return bucket != null;
+        }
+    }
+
+    // Doubly-linked list with a sentinel, so add and remove are O(1)
+    private static final class Bucket<T> {
+        private final Entry<T> head = new Entry<>(null, 0);
+
+        Bucket() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        void add(Entry<T> entry) {
+            entry.prev = head.prev;
+            entry.next = head;
+            head.prev.next = entry;
+            head.prev = entry;
+            entry.bucket = this;
+        }
+
+        void remove(Entry<T> entry) {
+            entry.prev.next = entry.next;
+            entry.next.prev = entry.prev;
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+        }
+
+        List<Entry<T>> drain() {
+            List<Entry<T>> entries = new ArrayList<>();
+            Entry<T> entry = head.next;
+            while (entry != head) {
+                Entry<T> next = entry.next;
+                entry.prev = null;
+                entry.next = null;
+                entry.bucket = null;
+                entries.add(entry);
+                entry = next;
+            }
+            head.prev = head;
+            head.next = head;
+            return entries;
+        }
+    }
+
+    /**
+     * @param tickMs     resolution of the wheel
+     * @param wheelSize  slots per level
+     * @param levelCount number of levels; the wheel spans tickMs * wheelSize^levelCount
+     * @param nowMs      current time
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levelCount, long nowMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.levels = new Bucket[levelCount][wheelSize];
+        this.slotSpans = new long[levelCount];
+
+        long span = 1;
+        for (int level = 0; level < levelCount; level++) {
+            slotSpans[level] = span;
+            for (int slot = 0; slot < wheelSize; slot++) {
+                levels[level][slot] = new Bucket<>();
+            }
+            span = Math.multiplyExact(span, wheelSize);
+        }
+        this.maxDelayTicks = span;
+        this.currentTick = nowMs / tickMs;
+    }
+
+    /**
+     * Schedule a value to expire at the given time. Times already past expire on the next advance.
+     *
+     * @throws IllegalArgumentException if the time is beyond the wheel's span
+     */
+    public Entry<T> schedule(T value, long expiryMs) {
+        long expiryTick = Math.max(expiryMs / tickMs, currentTick + 1);
+        if (expiryTick - currentTick >= maxDelayTicks) {
+            throw new IllegalArgumentException("Expiry is beyond the timing wheel span");
+        }
+        Entry<T> entry = new Entry<>(value, expiryTick);
+        place(entry);
+        size++;
+        return entry;
+    }
+
+    public void cancel(Entry<T> entry) {
+        if (entry.bucket != null) {
+            entry.bucket.remove(entry);
+            size--;
+        }
+    }
+
+    /**
+     * Move the clock forward to nowMs and return every value that expired on the way
+     */
+    public List<T> advanceTo(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = nowMs / tickMs;
+
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            // Cascade higher levels whose slot boundary we just crossed, top down
+            for (int level = levels.length - 1; level >= 1; level--) {
+                if (currentTick % slotSpans[level] == 0) {
+                    int slot = (int) ((currentTick / slotSpans[level]) % wheelSize);
+                    for (Entry<T> entry : levels[level][slot].drain()) {
+                        if (entry.expiryTick <= currentTick) {
+                            expired.add(entry.value);
+                            size--;
+                        } else {
+                            place(entry);
+                        }
+                    }
+                }
+            }
+
+            int slot = (int) (currentTick % wheelSize);
+            for (Entry<T> entry : levels[0][slot].drain()) {
+                if (entry.expiryTick <= currentTick) {
+                    expired.add(entry.value);
+                    size--;
+                } else {
+                    place(entry); // a later lap of the same slot
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Latest time that can currently be scheduled
+     */
+    public long horizonMs() {
+        return (currentTick + maxDelayTicks - 1) * tickMs;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        long delay = entry.expiryTick - currentTick;
+        int level = 0;
+        while (level < levels.length - 1 && delay >= slotSpans[level + 1]) {
+            level++;
+        }
+        int slot = (int) ((entry.expiryTick / slotSpans[level]) % wheelSize);
+        levels[level][slot].add(entry);
+    }
+}
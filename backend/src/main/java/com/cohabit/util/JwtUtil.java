@@ -2,11 +2,15 @@ package com.cohabit.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Component
 public class JwtUtil {
@@ -17,8 +21,54 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours
     private Long jwtExpiration;
 
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    // Signing key and parser are immutable and thread-safe, so build them once
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // Verified token -> userId, dropped once the token itself expires. Tokens are spread over
+    // lock stripes so concurrent requests rarely contend; each stripe is access-ordered and
+    // evicts its least recently used token in O(1) once it holds its share of max-entries.
+    private static final int CACHE_STRIPES = 64;
+
+    private ReentrantLock[] cacheLocks;
+    private LinkedHashMap<String, VerifiedToken>[] verifiedTokens;
+
+    private record VerifiedToken(Long userId, long expiresAtMillis) {
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+
+    @PostConstruct
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKeyString.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        int maxEntriesPerStripe = Math.max(1, cacheMaxEntries / CACHE_STRIPES);
+        cacheLocks = new ReentrantLock[CACHE_STRIPES];
+        verifiedTokens = new LinkedHashMap[CACHE_STRIPES];
+        for (int i = 0; i < CACHE_STRIPES; i++) {
+            cacheLocks[i] = new ReentrantLock();
+            verifiedTokens[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                    return size() > maxEntriesPerStripe;
+                }
+            };
+        }
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKeyString.getBytes());
+        return signingKey;
+    }
+
+    private Claims parseClaims(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     // ------------------------------
@@ -40,25 +90,68 @@ public class JwtUtil {
                 .compact();
     }
 
+    // ------------------------------
+    // Verified Token Cache
+    // ------------------------------
+    /**
+     * Resolve the userId for a token, verifying its signature at most once
+     * while it stays in the cache. Returns null if the token is invalid or expired.
+     */
+    public Long resolveUserId(String token) {
+        long now = System.currentTimeMillis();
+        int stripe = (token.hashCode() & 0x7fffffff) % CACHE_STRIPES;
+
+        VerifiedToken cached;
+        ReentrantLock lock = cacheLocks[stripe];
+        lock.lock();
+        try {
+            cached = verifiedTokens[stripe].get(token);
+            if (cached != null && cached.isExpired(now)) {
+                verifiedTokens[stripe].remove(token);
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (cached != null) {
+            return cached.userId();
+        }
+
+        Claims claims;
+        try {
+            claims = parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        Long userId = Long.parseLong(claims.getSubject());
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            cacheVerifiedToken(stripe, token, new VerifiedToken(userId, expiration.getTime()));
+        }
+        return userId;
+    }
+
+    private void cacheVerifiedToken(int stripe, String token, VerifiedToken verified) {
+        ReentrantLock lock = cacheLocks[stripe];
+        lock.lock();
+        try {
+            verifiedTokens[stripe].put(token, verified);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     // ------------------------------
     // Existing Methods
     // ------------------------------
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return Long.parseLong(claims.getSubject());
+        return Long.parseLong(parseClaims(token).getSubject());
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
@@ -66,13 +159,7 @@ public class JwtUtil {
     }
 
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getExpiration();
+        return parseClaims(token).getExpiration();
     }
 
     public boolean isTokenExpired(String token) {
@@ -88,12 +175,6 @@ public class JwtUtil {
     // New Method You Needed
     // ------------------------------
     public Long extractUserId(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return Long.parseLong(claims.getSubject());
+        return Long.parseLong(parseClaims(token).getSubject());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,253 @@
+package com.cohabit.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Order-statistic leaderboard: members ordered by XP (highest first), then by user id.
+ *
+ * Backed by a treap whose nodes carry subtree sizes, so updates, rank-of-user and
+ * select-by-rank are O(log n) expected; top-K and neighbours-around-a-user cost
+ * O(log n + k). Reads share a lock; updates take it exclusively.
+ */
+public class RankedLeaderboard {
+
+    /**
+     * A member's standing; rank is 1-based
+     */
+    public record Entry(Long userId, int xp, int tasksCompleted, int rank) {
+    }
+
+    private static final class Node {
+        final long userId;
+        int xp;
+        int tasksCompleted;
+        final long revision;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(long userId, int xp, int tasksCompleted, long revision) {
+            this.userId = userId;
+            this.xp = xp;
+            this.tasksCompleted = tasksCompleted;
+            this.revision = revision;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Node> nodesByUser = new HashMap<>();
+    private Node root;
+
+    /**
+     * Add a member or replace their XP and completion count, unless the board already holds
+     * a newer revision of their standing (updates may arrive out of order)
+     */
+    public void put(Long userId, int xp, int tasksCompleted, long revision) {
+        lock.writeLock().lock();
+        try {
+            Node existing = nodesByUser.get(userId);
+            if (existing != null) {
+                if (existing.revision > revision) {
+                    return;
+                }
+                nodesByUser.remove(userId);
+                root = delete(root, existing.xp, existing.userId);
+            }
+            Node node = new Node(userId, xp, tasksCompleted, revision);
+            nodesByUser.put(userId, node);
+            root = insert(root, node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            Node existing = nodesByUser.remove(userId);
+            if (existing != null) {
+                root = delete(root, existing.xp, existing.userId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 1-based rank of the member, or 0 if they are not on the board
+     */
+    public int rankOf(Long userId) {
+        lock.readLock().lock();
+        try {
+            Node node = nodesByUser.get(userId);
+            return node == null ? 0 : countBefore(node.xp, node.userId) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The first k members in rank order
+     */
+    public List<Entry> top(int k) {
+        lock.readLock().lock();
+        try {
+            return range(0, Math.min(k, size(root)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The member and up to radius members ranked directly above and below them;
+     * empty if the member is not on the board
+     */
+    public List<Entry> around(Long userId, int radius) {
+        lock.readLock().lock();
+        try {
+            Node node = nodesByUser.get(userId);
+            if (node == null) {
+                return List.of();
+            }
+            int index = countBefore(node.xp, node.userId);
+            return range(Math.max(0, index - radius), Math.min(size(root), index + radius + 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Entries at 0-based positions [from, to), walking the tree in order once
+    private List<Entry> range(int from, int to) {
+        List<Entry> entries = new ArrayList<>(Math.max(0, to - from));
+        collect(root, 0, from, to, entries);
+        return entries;
+    }
+
+    private void collect(Node node, int offset, int from, int to, List<Entry> out) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        collect(node.left, offset, from, to, out);
+        int index = offset + size(node.left);
+        if (index >= from && index < to) {
+            out.add(new Entry(node.userId, node.xp, node.tasksCompleted, index + 1));
+        }
+        collect(node.right, index + 1, from, to, out);
+    }
+
+    // Number of members ranked ahead of (xp, userId)
+    private int countBefore(int xp, long userId) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(xp, userId, node);
+            if (cmp == 0) {
+                return count + size(node.left);
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    private static Node insert(Node node, Node item) {
+        if (node == null) {
+            return item;
+        }
+        if (item.priority > node.priority) {
+            Node[] parts = split(node, item.xp, item.userId);
+            item.left = parts[0];
+            item.right = parts[1];
+            return update(item);
+        }
+        if (compare(item.xp, item.userId, node) < 0) {
+            node.left = insert(node.left, item);
+        } else {
+            node.right = insert(node.right, item);
+        }
+        return update(node);
+    }
+
+    private static Node delete(Node node, int xp, long userId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(xp, userId, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, xp, userId);
+        } else {
+            node.right = delete(node.right, xp, userId);
+        }
+        return update(node);
+    }
+
+    // Split into members ranked ahead of (xp, userId) and the rest
+    private static Node[] split(Node node, int xp, long userId) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(xp, userId, node) > 0) {
+            Node[] parts = split(node.right, xp, userId);
+            node.right = parts[0];
+            return new Node[]{update(node), parts[1]};
+        }
+        Node[] parts = split(node.left, xp, userId);
+        node.left = parts[1];
+        return new Node[]{parts[0], update(node)};
+    }
+
+    // Every member of a is ranked ahead of every member of b
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            return update(a);
+        }
+        b.left = merge(a, b.left);
+        return update(b);
+    }
+
+    // Negative when (xp, userId) ranks ahead of the node: higher XP first, then lower user id
+    private static int compare(int xp, long userId, Node node) {
+        if (xp != node.xp) {
+            return Integer.compare(node.xp, xp);
+        }
+        return Long.compare(userId, node.userId);
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
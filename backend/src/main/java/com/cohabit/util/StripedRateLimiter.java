@@ -0,0 +1,121 @@
+package com.cohabit.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory token-bucket rate limiter keyed by string.
+ * Keys are spread over lock stripes so unrelated keys never contend, and each
+ * stripe is an access-ordered map bounded by size with idle buckets evicted first.
+ */
+public class StripedRateLimiter {
+
+    private final int capacity;
+    private final double refillPerNano;
+    private final long idleTimeoutNanos;
+    private final int maxKeysPerStripe;
+
+    private final ReentrantLock[] locks;
+    private final LinkedHashMap<String, Bucket>[] stripes;
+
+    private static final class Bucket {
+        double tokens;
+        long lastRefillNanos;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefillNanos = now;
+        }
+    }
+
+    /**
+     * @param capacity         burst size (tokens in a full bucket)
+     * @param refillPerMinute  tokens added back per minute
+     * @param idleTimeoutMs    buckets untouched for this long are evicted
+     * @param maxKeys          upper bound on tracked keys across all stripes
+     * @param stripeCount      number of lock stripes
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public StripedRateLimiter(int capacity, double refillPerMinute, long idleTimeoutMs, int maxKeys, int stripeCount) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.maxKeysPerStripe = Math.max(1, maxKeys / stripeCount);
+
+        this.locks = new ReentrantLock[stripeCount];
+        this.stripes = new LinkedHashMap[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            locks[i] = new ReentrantLock();
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true);
+        }
+    }
+
+    /**
+     * Take one token for the key. Returns false if the bucket is empty.
+     */
+    public boolean tryAcquire(String key) {
+        int stripe = (key.hashCode() & 0x7fffffff) % stripes.length;
+        LinkedHashMap<String, Bucket> buckets = stripes[stripe];
+        ReentrantLock lock = locks[stripe];
+        long now = System.nanoTime();
+
+        lock.lock();
+        try {
+            evictIdle(buckets, now);
+
+            Bucket bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxKeysPerStripe) {
+                    // Full of active keys: drop the least recently used one
+                    Iterator<Bucket> eldest = buckets.values().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+                bucket = new Bucket(capacity, now);
+                buckets.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity,
+                        bucket.tokens + (now - bucket.lastRefillNanos) * refillPerNano);
+                bucket.lastRefillNanos = now;
+            }
+
+            if (bucket.tokens < 1) {
+                return false;
+            }
+            bucket.tokens -= 1;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of keys currently tracked (stripes are locked one at a time, so this is approximate)
+     */
+    public int size() {
+        int total = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].lock();
+            try {
+                total += stripes[i].size();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return total;
+    }
+
+    private void evictIdle(LinkedHashMap<String, Bucket> buckets, long now) {
+        // Access order puts the least recently used buckets first
+        Iterator<Map.Entry<String, Bucket>> it = buckets.entrySet().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().getValue().lastRefillNanos < idleTimeoutNanos) {
+                break;
+            }
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.cohabit.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the titles and descriptions of one household's tasks.
+ * Terms live in a sorted map so every query term also matches as a prefix
+ * ("vac" finds "vacuum"). Reads share a lock; updates take it exclusively.
+ */
+public class TaskTextIndex {
+
+    private static final Pattern SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TOKEN_LENGTH = 32;
+
+    // Rough heap cost, used only to keep all indexes under a memory budget
+    private static final int BYTES_PER_TERM = 64;
+    private static final int BYTES_PER_POSTING = 40;
+    private static final int BYTES_PER_DOCUMENT = 80;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> termsByTask = new HashMap<>();
+
+    private long estimatedBytes;
+
+    /**
+     * Add or replace a task's text
+     */
+    public void put(Long taskId, String title, String description) {
+        Set<String> terms = tokenize(title, description);
+        lock.writeLock().lock();
+        try {
+            removeLocked(taskId);
+            for (String term : terms) {
+                Set<Long> ids = postings.get(term);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    postings.put(term, ids);
+                    estimatedBytes += BYTES_PER_TERM + 2L * term.length();
+                }
+                ids.add(taskId);
+                estimatedBytes += BYTES_PER_POSTING;
+            }
+            termsByTask.put(taskId, terms);
+            estimatedBytes += BYTES_PER_DOCUMENT;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long taskId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of tasks containing every query term (each as a word or word prefix),
+     * newest (highest id) first
+     */
+    public List<Long> search(String query, int limit) {
+        Set<String> terms = tokenize(query, null);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Resolve each term to its matches, then intersect starting from the smallest set
+            List<Set<Long>> matches = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Set<Long> ids = prefixMatches(term);
+                if (ids.isEmpty()) {
+                    return List.of();
+                }
+                matches.add(ids);
+            }
+            matches.sort(Comparator.comparingInt(Set::size));
+
+            List<Long> result = new ArrayList<>();
+            for (Long id : matches.get(0)) {
+                boolean inAll = true;
+                for (int i = 1; i < matches.size() && inAll; i++) {
+                    inAll = matches.get(i).contains(id);
+                }
+                if (inAll) {
+                    result.add(id);
+                }
+            }
+
+            result.sort(Comparator.reverseOrder());
+            return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsByTask.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return estimatedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> prefixMatches(String prefix) {
+        SortedMap<String, Set<Long>> range = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (range.size() == 1) {
+            return range.values().iterator().next();
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Set<Long> termIds : range.values()) {
+            ids.addAll(termIds);
+        }
+        return ids;
+    }
+
+    private void removeLocked(Long taskId) {
+        Set<String> terms = termsByTask.remove(taskId);
+        if (terms == null) {
+            return;
+        }
+        estimatedBytes -= BYTES_PER_DOCUMENT;
+        for (String term : terms) {
+            Set<Long> ids = postings.get(term);
+            if (ids != null && ids.remove(taskId)) {
+                estimatedBytes -= BYTES_PER_POSTING;
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                    estimatedBytes -= BYTES_PER_TERM + 2L * term.length();
+                }
+            }
+        }
+    }
+
+    /**
+     * Lower-case words of the given texts, split on anything that is not a letter or digit
+     */
+    public static Set<String> tokenize(String first, String second) {
+        Set<String> terms = new HashSet<>();
+        addTokens(terms, first);
+        addTokens(terms, second);
+        return terms;
+    }
+
+    private static void addTokens(Set<String> terms, String text) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        for (String token : SPLIT.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                terms.add(token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token);
+            }
+        }
+    }
+}
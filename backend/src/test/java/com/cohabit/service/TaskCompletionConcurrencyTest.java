@@ -0,0 +1,192 @@
+package com.cohabit.service;
+
+import com.cohabit.exception.TaskNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress test for completion XP: many threads toggle and delete tasks at once through
+ * TaskService (conditional status UPDATE, INSERT IGNORE completion, UserRepository.addXp and
+ * the set-based reversal on delete), then every user's total_xp must equal the XP recorded
+ * on their completions. Runs against MySQL in Docker and is skipped when Docker is
+ * unavailable, so a green build without Docker says nothing about the double-award fix;
+ * only a run that reports these tests as executed (not skipped) counts as evidence.
+ */
+@SpringBootTest(properties = {
+        "reminders.enabled=false",
+        "notifications.dispatcher.enabled=false",
+        "recurrence.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class TaskCompletionConcurrencyTest {
+
+    private static final int USERS = 4;
+    private static final int TASKS_PER_USER = 50;
+    private static final int XP_PER_TASK = 20;
+    private static final int THREADS = 32;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withCopyFileToContainer(MountableFile.forHostPath("../database/schema.sql"),
+                    "/docker-entrypoint-initdb.d/schema.sql");
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> taskIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        userIds.clear();
+        taskIds.clear();
+        long suffix = System.nanoTime();
+
+        for (int i = 0; i < USERS; i++) {
+            userIds.add(insert("INSERT INTO users (username, password_hash, display_name) VALUES (?, 'x', ?)",
+                    "stress" + suffix + "-" + i, "Stress " + i));
+        }
+        Long householdId = insert("INSERT INTO households (name, invite_code, creator_id) VALUES ('Stress', ?, ?)",
+                Long.toString(suffix, 36), userIds.get(0));
+        for (int i = 0; i < USERS; i++) {
+            jdbcTemplate.update("INSERT INTO members (household_id, user_id, role) VALUES (?, ?, ?)",
+                    householdId, userIds.get(i), i == 0 ? "OWNER" : "MEMBER");
+        }
+        for (int i = 0; i < USERS * TASKS_PER_USER; i++) {
+            taskIds.add(insert("INSERT INTO tasks (household_id, title, xp_points, status, created_by_user_id) " +
+                    "VALUES (?, ?, ?, 'OPEN', ?)", householdId, "Chore " + i, XP_PER_TASK, userIds.get(0)));
+        }
+    }
+
+    @Test
+    void parallelCompletionsOfDistinctTasksAreAllCounted() throws Exception {
+        // Every user completes their own slice of tasks: no task conflicts, heavy contention on user rows
+        List<Callable<Object>> work = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            Long userId = userIds.get(u);
+            for (Long taskId : taskIds.subList(u * TASKS_PER_USER, (u + 1) * TASKS_PER_USER)) {
+                work.add(() -> taskService.toggleTaskCompletion(taskId, userId));
+            }
+        }
+        runAll(work);
+
+        for (Long userId : userIds) {
+            assertEquals(TASKS_PER_USER * XP_PER_TASK, totalXp(userId));
+            assertEquals(TASKS_PER_USER, completions(userId));
+        }
+        assertXpMatchesCompletions();
+    }
+
+    @Test
+    void concurrentTogglesAndDeletesNeverLoseXp() throws Exception {
+        // Every user toggles every task several times while a tenth of the tasks are deleted
+        List<Callable<Object>> work = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            for (Long taskId : taskIds) {
+                for (Long userId : userIds) {
+                    work.add(() -> taskService.toggleTaskCompletion(taskId, userId));
+                }
+            }
+        }
+        for (int i = 0; i < taskIds.size(); i += 10) {
+            Long taskId = taskIds.get(i);
+            Long userId = userIds.get(i % USERS);
+            work.add(() -> {
+                taskService.deleteTask(taskId, userId);
+                return null;
+            });
+        }
+        Collections.shuffle(work, new Random(42));
+        runAll(work);
+
+        assertXpMatchesCompletions();
+        for (Long userId : userIds) {
+            assertTrue(totalXp(userId) >= 0);
+        }
+        Integer duplicates = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT task_id, completed_by_user_id FROM task_completions " +
+                "GROUP BY task_id, completed_by_user_id HAVING COUNT(*) > 1) d", Integer.class);
+        assertEquals(0, duplicates);
+    }
+
+    // Run everything on a fixed pool; a toggle racing a delete of the same task may find it gone
+    private void runAll(List<Callable<Object>> work) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Object> future : pool.invokeAll(work)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof TaskNotFoundException)) {
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        }
+    }
+
+    private void assertXpMatchesCompletions() {
+        for (Long userId : userIds) {
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                    "SELECT u.total_xp AS total_xp, u.level AS level, " +
+                    "       (SELECT COALESCE(SUM(tc.xp_awarded), 0) FROM task_completions tc " +
+                    "        WHERE tc.completed_by_user_id = u.id) AS awarded " +
+                    "FROM users u WHERE u.id = ?", userId);
+            int totalXp = ((Number) row.get("total_xp")).intValue();
+            assertEquals(((Number) row.get("awarded")).intValue(), totalXp, "total_xp of user " + userId);
+            assertEquals((int) Math.floor(Math.sqrt(totalXp / 100.0)) + 1, ((Number) row.get("level")).intValue(),
+                    "level of user " + userId);
+        }
+    }
+
+    private int totalXp(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT total_xp FROM users WHERE id = ?", Integer.class, userId);
+    }
+
+    private int completions(Long userId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM task_completions WHERE completed_by_user_id = ?", Integer.class, userId);
+    }
+
+    private Long insert(String sql, Object... args) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            return ps;
+        }, keys);
+        return keys.getKey().longValue();
+    }
+}
@@ -0,0 +1,107 @@
+package com.cohabit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Timing wheel with 1 ms ticks, 4 slots and 3 levels (64-tick span), small enough that
+ * most entries start on an upper level and have to cascade down before they fire.
+ */
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_000;
+
+    private record Timer(int id, long expiryMs) {
+    }
+
+    @Test
+    void firesEveryEntryAtItsTickInExpiryOrder() {
+        HierarchicalTimingWheel<Timer> wheel = new HierarchicalTimingWheel<>(1, 4, 3, START);
+        Random random = new Random(42);
+        List<Timer> timers = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Timer timer = new Timer(i, START + 1 + random.nextInt(63));
+            timers.add(timer);
+            wheel.schedule(timer, timer.expiryMs());
+        }
+
+        List<Timer> fired = new ArrayList<>();
+        long now = START;
+        while (now < START + 64) {
+            now += 1 + random.nextInt(5);
+            for (Timer timer : wheel.advanceTo(now)) {
+                assertTrue(timer.expiryMs() <= now, "fired early: " + timer);
+                assertTrue(timer.expiryMs() > now - 5, "fired late: " + timer);
+                fired.add(timer);
+            }
+        }
+
+        assertEquals(timers.size(), fired.size());
+        assertEquals(0, wheel.size());
+        for (int i = 1; i < fired.size(); i++) {
+            assertTrue(fired.get(i - 1).expiryMs() <= fired.get(i).expiryMs(), "out of order at " + i);
+        }
+    }
+
+    @Test
+    void cascadesEntriesFromTheTopLevel() {
+        HierarchicalTimingWheel<Timer> wheel = new HierarchicalTimingWheel<>(1, 4, 3, START);
+        Timer far = new Timer(1, START + 50);
+        wheel.schedule(far, far.expiryMs());
+
+        assertTrue(wheel.advanceTo(START + 49).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(far), wheel.advanceTo(START + 50));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastExpiryFiresOnNextAdvance() {
+        HierarchicalTimingWheel<Timer> wheel = new HierarchicalTimingWheel<>(1, 4, 3, START);
+        Timer late = new Timer(1, START - 100);
+        wheel.schedule(late, late.expiryMs());
+
+        assertEquals(List.of(late), wheel.advanceTo(START + 1));
+    }
+
+    @Test
+    void cancelledEntriesNeverFire() {
+        HierarchicalTimingWheel<Timer> wheel = new HierarchicalTimingWheel<>(1, 4, 3, START);
+        List<HierarchicalTimingWheel.Entry<Timer>> entries = new ArrayList<>();
+        List<Timer> kept = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Timer timer = new Timer(i, START + 1 + i);
+            HierarchicalTimingWheel.Entry<Timer> entry = wheel.schedule(timer, timer.expiryMs());
+            if (i % 3 == 0) {
+                entries.add(entry);
+            } else {
+                kept.add(timer);
+            }
+        }
+        entries.forEach(wheel::cancel);
+        entries.forEach(entry -> assertFalse(entry.isScheduled()));
+        // Cancelling twice is a no-op
+        entries.forEach(wheel::cancel);
+
+        assertEquals(kept.size(), wheel.size());
+        List<Timer> fired = wheel.advanceTo(START + 64);
+        kept.sort(Comparator.comparingLong(Timer::expiryMs));
+        assertEquals(kept, fired);
+    }
+
+    @Test
+    void rejectsExpiryBeyondTheSpan() {
+        HierarchicalTimingWheel<Timer> wheel = new HierarchicalTimingWheel<>(1, 4, 3, START);
+        assertEquals(START + 63, wheel.horizonMs());
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(new Timer(1, START + 64), START + 64));
+    }
+}
@@ -0,0 +1,48 @@
+package com.cohabit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InviteCodeCipherTest {
+
+    @Test
+    void encodesEveryIndexToADistinctCode() {
+        // Odd and even lengths split the index into unequal and equal halves
+        for (int length = 1; length <= 3; length++) {
+            InviteCodeCipher cipher = new InviteCodeCipher(length, 0x5EED_1234L);
+            long capacity = InviteCodeCipher.capacity(length);
+            Set<String> codes = new HashSet<>();
+            for (long index = 0; index < capacity; index++) {
+                String code = cipher.encode(index);
+                assertEquals(length, code.length());
+                assertTrue(code.chars().allMatch(c -> InviteCodeCipher.ALPHABET.indexOf(c) >= 0), code);
+                codes.add(code);
+            }
+            assertEquals(capacity, codes.size(), "collision at length " + length);
+        }
+    }
+
+    @Test
+    void differentKeysGiveDifferentPermutations() {
+        InviteCodeCipher a = new InviteCodeCipher(6, 1L);
+        InviteCodeCipher b = new InviteCodeCipher(6, 2L);
+        assertNotEquals(a.encode(0), b.encode(0));
+        assertEquals(a.encode(12_345), new InviteCodeCipher(6, 1L).encode(12_345));
+    }
+
+    @Test
+    void rejectsOutOfRangeInput() {
+        InviteCodeCipher cipher = new InviteCodeCipher(2, 1L);
+        assertThrows(IllegalArgumentException.class, () -> cipher.encode(-1));
+        assertThrows(IllegalArgumentException.class, () -> cipher.encode(InviteCodeCipher.capacity(2)));
+        assertThrows(IllegalArgumentException.class, () -> new InviteCodeCipher(0, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new InviteCodeCipher(InviteCodeCipher.MAX_LENGTH + 1, 1L));
+    }
+}
@@ -0,0 +1,89 @@
+package com.cohabit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the treap against a plain list sorted by XP descending, then user id.
+ */
+class RankedLeaderboardTest {
+
+    private static final Comparator<RankedLeaderboard.Entry> RANK_ORDER =
+            Comparator.comparingInt(RankedLeaderboard.Entry::xp).reversed()
+                    .thenComparing(RankedLeaderboard.Entry::userId);
+
+    @Test
+    void matchesSortedListUnderRandomUpdates() {
+        RankedLeaderboard board = new RankedLeaderboard();
+        Map<Long, RankedLeaderboard.Entry> expected = new HashMap<>();
+        Random random = new Random(7);
+        long revision = 0;
+
+        for (int i = 0; i < 2_000; i++) {
+            long userId = 1 + random.nextInt(200);
+            if (random.nextInt(10) == 0) {
+                board.remove(userId);
+                expected.remove(userId);
+            } else {
+                // Narrow XP range so ties on XP are common and the user id tie-break matters
+                int xp = random.nextInt(50);
+                int tasks = random.nextInt(20);
+                board.put(userId, xp, tasks, ++revision);
+                expected.put(userId, new RankedLeaderboard.Entry(userId, xp, tasks, 0));
+            }
+        }
+
+        List<RankedLeaderboard.Entry> sorted = new ArrayList<>(expected.values());
+        sorted.sort(RANK_ORDER);
+        assertEquals(sorted.size(), board.size());
+
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i + 1, board.rankOf(sorted.get(i).userId()));
+        }
+        assertEquals(0, board.rankOf(10_000L));
+
+        for (int k : new int[]{0, 1, 10, sorted.size(), sorted.size() + 5}) {
+            assertEquals(ranked(sorted, 0, Math.min(k, sorted.size())), board.top(k));
+        }
+
+        for (int i = 0; i < sorted.size(); i += 17) {
+            int from = Math.max(0, i - 3);
+            int to = Math.min(sorted.size(), i + 4);
+            assertEquals(ranked(sorted, from, to), board.around(sorted.get(i).userId(), 3));
+        }
+        assertTrue(board.around(10_000L, 3).isEmpty());
+    }
+
+    @Test
+    void ignoresStandingsOlderThanTheOneHeld() {
+        RankedLeaderboard board = new RankedLeaderboard();
+        board.put(1L, 100, 5, 2);
+        board.put(2L, 50, 3, 1);
+        board.put(1L, 10, 1, 1);
+
+        assertEquals(List.of(
+                new RankedLeaderboard.Entry(1L, 100, 5, 1),
+                new RankedLeaderboard.Entry(2L, 50, 3, 2)), board.top(2));
+
+        board.put(1L, 10, 6, 3);
+        assertEquals(2, board.rankOf(1L));
+    }
+
+    private static List<RankedLeaderboard.Entry> ranked(List<RankedLeaderboard.Entry> sorted, int from, int to) {
+        List<RankedLeaderboard.Entry> result = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            RankedLeaderboard.Entry e = sorted.get(i);
+            result.add(new RankedLeaderboard.Entry(e.userId(), e.xp(), e.tasksCompleted(), i + 1));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,51 @@
+package com.cohabit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskTextIndexTest {
+
+    @Test
+    void matchesEveryTermAsWordOrPrefixNewestFirst() {
+        TaskTextIndex index = new TaskTextIndex();
+        index.put(1L, "Vacuum the living room", null);
+        index.put(2L, "Take out trash", "Recycling goes on Tuesday");
+        index.put(3L, "Vacate guest room", "Before Friday");
+
+        assertEquals(List.of(3L, 1L), index.search("vac", 10));
+        assertEquals(List.of(1L), index.search("VACUUM living", 10));
+        assertEquals(List.of(3L, 1L), index.search("room", 10));
+        assertEquals(List.of(3L), index.search("room fri", 10));
+        assertEquals(List.of(2L), index.search("recycl", 10));
+        assertEquals(List.of(3L), index.search("room", 1));
+        assertTrue(index.search("room garage", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void removeAndReplaceDropOldTerms() {
+        TaskTextIndex index = new TaskTextIndex();
+        index.put(1L, "Water plants", "Balcony");
+        index.put(2L, "Water the lawn", null);
+        long bytesWithBoth = index.estimatedBytes();
+
+        index.put(1L, "Feed cat", null);
+        assertEquals(List.of(2L), index.search("water", 10));
+        assertTrue(index.search("balcony", 10).isEmpty());
+        assertEquals(List.of(1L), index.search("cat", 10));
+
+        index.remove(1L);
+        index.remove(1L);
+        assertTrue(index.search("feed", 10).isEmpty());
+        assertEquals(1, index.size());
+        assertTrue(index.estimatedBytes() < bytesWithBoth);
+
+        index.remove(2L);
+        assertEquals(0, index.size());
+        assertEquals(0, index.estimatedBytes());
+    }
+}
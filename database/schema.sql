@@ -7,6 +7,11 @@
 -- USE cohabit_db;
 
 -- Drop tables if they exist (in reverse order of dependencies)
+DROP TABLE IF EXISTS job_leases;
+DROP TABLE IF EXISTS invite_code_sequence;
+DROP TABLE IF EXISTS user_xp_daily;
+DROP TABLE IF EXISTS task_deletions;
+DROP TABLE IF EXISTS task_recurrences;
 DROP TABLE IF EXISTS notifications;
 DROP TABLE IF EXISTS user_stats;
 DROP TABLE IF EXISTS task_completions;
@@ -34,7 +39,9 @@ CREATE TABLE users (
     level INT DEFAULT 1,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    INDEX idx_username (username)
+    INDEX idx_username (username),
+    -- Global leaderboard: top-K rebuilds walk it from the top, rank histograms scan it index-only
+    INDEX idx_total_xp (total_xp DESC, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- ============================================
@@ -93,6 +100,7 @@ CREATE TABLE households (
     creator_id BIGINT NOT NULL,
     time_created TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    change_version BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (creator_id) REFERENCES users(id) ON DELETE RESTRICT,
     INDEX idx_invite_code (invite_code),
     INDEX idx_creator_id (creator_id)
@@ -156,6 +164,7 @@ CREATE TABLE tasks (
     FOREIGN KEY (household_id) REFERENCES households(id) ON DELETE CASCADE,
     FOREIGN KEY (created_by_user_id) REFERENCES users(id) ON DELETE RESTRICT,
     INDEX idx_household_status (household_id, status),
+    INDEX idx_household_updated (household_id, updated_at, id),
     INDEX idx_due_date (due_date),
     INDEX idx_status (status),
     INDEX idx_created_by (created_by_user_id)
@@ -202,6 +211,7 @@ CREATE TABLE task_completions (
     FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE,
     FOREIGN KEY (completed_by_user_id) REFERENCES users(id) ON DELETE RESTRICT,
     FOREIGN KEY (verified_by_user_id) REFERENCES users(id) ON DELETE SET NULL,
+    UNIQUE KEY unique_completion (task_id, completed_by_user_id),
     INDEX idx_task_id (task_id),
     INDEX idx_completed_by (completed_by_user_id),
     INDEX idx_verification_status (verification_status),
@@ -227,13 +237,16 @@ CREATE TABLE user_stats (
     weekly_xp INT DEFAULT 0,
     week_start_date DATE,
     is_top_performer BOOLEAN DEFAULT FALSE,
+    revision BIGINT NOT NULL DEFAULT 0, -- bumped by every change to the standing; orders after-commit ranking updates
     last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (household_id) REFERENCES households(id) ON DELETE CASCADE,
     UNIQUE KEY unique_user_household (user_id, household_id),
     INDEX idx_user_id (user_id),
     INDEX idx_household_id (household_id),
-    INDEX idx_week_start (week_start_date)
+    INDEX idx_week_start (week_start_date),
+    -- Covering index for the leaderboard read: range on household, already in rank order
+    INDEX idx_household_leaderboard (household_id, total_xp DESC, user_id, tasks_completed_total)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- ============================================
@@ -249,7 +262,11 @@ CREATE TABLE notifications (
     related_task_id BIGINT,
     is_read BOOLEAN DEFAULT FALSE,
     scheduled_for TIMESTAMP NULL, -- custom alert times
+    due_at TIMESTAMP NULL, -- TASK_DUE only: the task due time the reminder is for; never rewritten
     sent_at TIMESTAMP NULL,
+    attempts INT NOT NULL DEFAULT 0, -- delivery attempts so far
+    next_attempt_at TIMESTAMP NULL, -- set while a delivery is in flight or backing off; NULL = ready once due
+    failed_at TIMESTAMP NULL, -- dead-lettered after max-attempts failed deliveries; never retried
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (household_id) REFERENCES households(id) ON DELETE CASCADE,
@@ -261,9 +278,96 @@ CREATE TABLE notifications (
     INDEX idx_sent_at (sent_at),
     -- Partial index for unsent notifications (MySQL doesn't support partial indexes directly,
     -- but we can create a regular index and filter in queries)
-    INDEX idx_unsent_notifications (scheduled_for, sent_at)
+    INDEX idx_unsent_notifications (scheduled_for, sent_at),
+    -- Dispatcher queue: equality on sent_at IS NULL and failed_at IS NULL first, so delivered
+    -- and dead-lettered rows are never scanned
+    INDEX idx_dispatch_queue (sent_at, failed_at, scheduled_for),
+    -- One due reminder per task, recipient and due time, so reminder writes can INSERT IGNORE.
+    -- due_at is NULL for every other type, so they are never constrained
+    UNIQUE KEY unique_reminder (related_task_id, user_id, type, due_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- ============================================
+-- 13. TASK_RECURRENCES TABLE
+-- ============================================
+-- One row per recurring series. head_task_id is the latest generated occurrence and
+-- next_due_at is the series' high-water mark: the due date of the next occurrence to generate.
+-- Deleting the head moves it back to the previous occurrence (TaskService.deleteTask); the cascade
+-- only removes a series whose last remaining task is deleted.
+CREATE TABLE task_recurrences (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    household_id BIGINT NOT NULL,
+    head_task_id BIGINT NOT NULL,
+    next_due_at TIMESTAMP NOT NULL,
+    occurrences_generated INT DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (household_id) REFERENCES households(id) ON DELETE CASCADE,
+    FOREIGN KEY (head_task_id) REFERENCES tasks(id) ON DELETE CASCADE,
+    UNIQUE KEY unique_head_task (head_task_id),
+    INDEX idx_household_next_due (household_id, next_due_at),
+    INDEX idx_next_due (next_due_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- 14. TASK_DELETIONS TABLE
+-- ============================================
+-- Tombstones for hard-deleted tasks, read by the GET /tasks/changes delta feed.
+-- Rows older than the retention window are purged; clients behind it do a full resync.
+CREATE TABLE task_deletions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    household_id BIGINT NOT NULL,
+    task_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (household_id) REFERENCES households(id) ON DELETE CASCADE,
+    INDEX idx_household_deleted (household_id, deleted_at, id),
+    INDEX idx_deleted_at (deleted_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- 15. USER_XP_DAILY TABLE
+-- ============================================
+-- XP and completions per member per day, summed for weekly, monthly and rolling-day leaderboards.
+-- Buckets older than the longest window are purged.
+CREATE TABLE user_xp_daily (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    household_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    xp INT NOT NULL DEFAULT 0,
+    completions INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (household_id) REFERENCES households(id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE KEY unique_household_user_day (household_id, user_id, day),
+    INDEX idx_day (day)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- 16. INVITE_CODE_SEQUENCE TABLE
+-- ============================================
+-- Single-row counter behind household invite codes. Each value is permuted with permutation_key
+-- into a distinct code of code_length characters; the app reserves values in blocks and moves to
+-- longer codes once a watermark share of the current length is used. Created by the app on first use.
+CREATE TABLE invite_code_sequence (
+    id TINYINT PRIMARY KEY,
+    code_length INT NOT NULL,
+    next_value BIGINT NOT NULL,
+    permutation_key BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- 17. JOB_LEASES TABLE
+-- ============================================
+-- One row per cluster-wide background job. An instance runs the job only after moving
+-- locked_until past NOW() with a conditional UPDATE, so at most one instance runs it per lease.
+-- Rows are created by the app on first use.
+CREATE TABLE job_leases (
+    name VARCHAR(100) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL,
+    locked_by VARCHAR(255)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+
 -- ============================================
 -- ADDITIONAL INDEXES FOR PERFORMANCE
 -- ============================================
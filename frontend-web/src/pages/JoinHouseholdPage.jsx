@@ -31,8 +31,8 @@ export const JoinHouseholdPage = () => {
     setFoundHousehold(null)
     
     const code = inviteCode.trim().toUpperCase()
-    if (!code || code.length !== 6) {
-      setError('Please enter a valid 6-character invite code')
+    if (!code || code.length < 6) {
+      setError('Please enter a valid invite code (at least 6 characters)')
       return
     }
 
@@ -206,7 +206,7 @@ export const JoinHouseholdPage = () => {
             <div className="text-center mb-6">
               <h2 className="text-lg font-semibold text-foreground">Enter Invite Code</h2>
               <p className="text-sm text-foreground-muted mt-1">
-                Ask your roommate for the 6-character code
+                Ask your roommate for the invite code
               </p>
             </div>
 
@@ -221,7 +221,7 @@ export const JoinHouseholdPage = () => {
                   setError('')
                 }}
                 placeholder="XXXXXX"
-                maxLength={6}
+                maxLength={12}
                 className="bg-background border-border-muted text-center text-2xl font-mono tracking-[0.5em] uppercase h-14"
               />
               {error && (
@@ -231,7 +231,7 @@ export const JoinHouseholdPage = () => {
 
             <Button 
               type="submit" 
-              disabled={loading || inviteCode.length !== 6} 
+              disabled={loading || inviteCode.length < 6} 
               className="w-full"
             >
               {loading ? (